@@ -0,0 +1,355 @@
+package person.companion.array;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：分块存放的定长记录数组，OffHeapRecordArray与MappedArray的公共实现
+ * 1.每条记录按照RecordCodec定义的布局编码成固定长度的字节，保存在ByteBuffer中
+ * 2.数据分块存放，每块保存2的幂条记录，扩容时只申请新的块，不复制已有数据，也不受单个ByteBuffer 2G的限制
+ * 3.子类决定块从哪里来：堆外内存或者文件映射
+ *
+ * author: companion
+ * Write by: 2026/10/18 18:10
+ */
+abstract class AbstractRecordArray<E> implements Iterable<E>, AutoCloseable {
+    // 移动记录时使用的临时缓冲区大小
+    private static final int SCRATCH_SIZE = 64 * 1024;
+
+    final RecordCodec<E> codec;
+    // 每条记录的字节数
+    final int recordSize;
+    // 每块记录数的log2
+    final int chunkShift;
+    // 每块的记录数 - 1
+    final int mask;
+    // 块目录
+    private ByteBuffer[] chunks = new ByteBuffer[8];
+    // 已经申请的块的个数
+    int chunkCount;
+    // 实际记录个数
+    int size;
+    // 移动记录时使用的临时缓冲区
+    private byte[] scratch;
+    private boolean closed;
+
+    /**
+     * @param codec         记录的编解码器
+     * @param chunkCapacity 每块的记录数，不是2的幂时向上取整为2的幂
+     */
+    AbstractRecordArray(RecordCodec<E> codec, int chunkCapacity) {
+        long capacity = chunkCapacity <= 1 ? 1 : Long.highestOneBit(chunkCapacity - 1L) << 1;
+        if (chunkCapacity < 1 || capacity * codec.recordSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("illegal chunk capacity: " + chunkCapacity);
+        }
+
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.chunkShift = Long.numberOfTrailingZeros(capacity);
+        this.mask = (int) capacity - 1;
+    }
+
+    /**
+     * 迭代器，每次next都会解码出一条新的记录
+     */
+    private class RecordIterator implements Iterator<E> {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+
+            int i = index++;
+            return codec.read(chunks[i >>> chunkShift], offset(i));
+        }
+    }
+
+    /**
+     * 在指定位置添加记录，之后的记录整体后移一条
+     *
+     * @param index   添加的索引值
+     * @param element 记录
+     */
+    public void add(int index, E element) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        // 所有块都满了，新增一个块
+        if (size == chunkCount << chunkShift) {
+            addChunk();
+        }
+
+        moveRecords(index, index + 1, size - index);
+        codec.write(chunks[index >>> chunkShift], offset(index), element);
+        // 记录写入之后再更新长度，持久化的长度不会包含还没有写入的记录
+        size++;
+        sizeChanged();
+    }
+
+    // 添加记录到最后一位
+    public void addLast(E element) {
+        add(size, element);
+    }
+
+    // 修改记录
+    public void replace(int index, E e) {
+        checkIndex(index);
+        codec.write(chunks[index >>> chunkShift], offset(index), e);
+    }
+
+    /**
+     * 删除记录，之后的记录整体前移一条
+     *
+     * @param index 删除的索引值
+     * @return 删除的记录
+     */
+    public E delete(int index) {
+        E oldValue = get(index);
+        moveRecords(index + 1, index, size - index - 1);
+        size--;
+        sizeChanged();
+        releaseChunk();
+        return oldValue;
+    }
+
+    public E deleteLast() {
+        return delete(size - 1);
+    }
+
+    // 查找记录，每次都会解码出一条新的记录
+    public E get(int index) {
+        checkIndex(index);
+        return codec.read(chunks[index >>> chunkShift], offset(index));
+    }
+
+    public E getLast() {
+        return get(size - 1);
+    }
+
+    /**
+     * 直接读取记录中的一个int字段，不需要解码整条记录
+     *
+     * @param index       记录索引
+     * @param fieldOffset 字段在记录中的字节偏移
+     * @return 字段值
+     */
+    public int getInt(int index, int fieldOffset) {
+        checkIndex(index);
+        return chunks[index >>> chunkShift].getInt(offset(index) + fieldOffset);
+    }
+
+    public void putInt(int index, int fieldOffset, int value) {
+        checkIndex(index);
+        chunks[index >>> chunkShift].putInt(offset(index) + fieldOffset, value);
+    }
+
+    public long getLong(int index, int fieldOffset) {
+        checkIndex(index);
+        return chunks[index >>> chunkShift].getLong(offset(index) + fieldOffset);
+    }
+
+    public void putLong(int index, int fieldOffset, long value) {
+        checkIndex(index);
+        chunks[index >>> chunkShift].putLong(offset(index) + fieldOffset, value);
+    }
+
+    public double getDouble(int index, int fieldOffset) {
+        checkIndex(index);
+        return chunks[index >>> chunkShift].getDouble(offset(index) + fieldOffset);
+    }
+
+    public void putDouble(int index, int fieldOffset, double value) {
+        checkIndex(index);
+        chunks[index >>> chunkShift].putDouble(offset(index) + fieldOffset, value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        checkOpen();
+        return new RecordIterator();
+    }
+
+    /**
+     * 释放全部的块，释放之后不能再使用
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            freeChunk(chunks[i]);
+            chunks[i] = null;
+        }
+
+        chunkCount = 0;
+        size = 0;
+    }
+
+    /**
+     * 申请第chunkIndex个块，块的长度为 recordSize * 2^chunkShift 个字节
+     *
+     * @param chunkIndex 块的序号
+     * @return 新的块
+     */
+    abstract ByteBuffer newChunk(int chunkIndex);
+
+    /**
+     * 释放一个块
+     *
+     * @param chunk 需要释放的块
+     */
+    abstract void freeChunk(ByteBuffer chunk);
+
+    /**
+     * 记录个数发生变化之后调用，子类可以在这里持久化记录个数
+     */
+    void sizeChanged() {
+    }
+
+    /**
+     * 恢复已有的size条记录，申请足够的块来存放它们，用于重新打开已经持久化的数据
+     *
+     * @param size 已有的记录个数
+     */
+    void restore(int size) {
+        while (chunkCount << chunkShift < size) {
+            addChunk();
+        }
+
+        this.size = size;
+    }
+
+    /**
+     * 移动count条记录，从src移动到dst，src与dst的区间可以重叠
+     * 以块边界和临时缓冲区大小为单位整块复制：向前移动时从前往后复制，向后移动时从后往前复制
+     *
+     * @param src   源起始索引
+     * @param dst   目标起始索引
+     * @param count 记录条数
+     */
+    private void moveRecords(int src, int dst, int count) {
+        if (count <= 0 || src == dst) {
+            return;
+        }
+
+        if (scratch == null) {
+            scratch = new byte[Math.max(recordSize, SCRATCH_SIZE / recordSize * recordSize)];
+        }
+
+        int scratchRecords = scratch.length / recordSize;
+        if (dst < src) {
+            while (count > 0) {
+                int n = Math.min(count, Math.min(scratchRecords,
+                        Math.min(recordsToChunkEnd(src), recordsToChunkEnd(dst))));
+                copy(src, dst, n);
+                src += n;
+                dst += n;
+                count -= n;
+            }
+        } else {
+            int srcEnd = src + count;
+            int dstEnd = dst + count;
+            while (count > 0) {
+                int n = Math.min(count, Math.min(scratchRecords,
+                        Math.min(recordsFromChunkStart(srcEnd), recordsFromChunkStart(dstEnd))));
+                srcEnd -= n;
+                dstEnd -= n;
+                copy(srcEnd, dstEnd, n);
+                count -= n;
+            }
+        }
+    }
+
+    /**
+     * 复制n条记录，源区间和目标区间都在同一个块内
+     */
+    private void copy(int src, int dst, int n) {
+        int length = n * recordSize;
+        ByteBuffer from = chunks[src >>> chunkShift];
+        from.position(offset(src));
+        from.get(scratch, 0, length);
+        ByteBuffer to = chunks[dst >>> chunkShift];
+        to.position(offset(dst));
+        to.put(scratch, 0, length);
+    }
+
+    // index所在的块中，从index到块结束的记录数
+    private int recordsToChunkEnd(int index) {
+        return (mask + 1) - (index & mask);
+    }
+
+    // end(不包含)所在的块中，从块开始到end的记录数
+    private int recordsFromChunkStart(int end) {
+        return ((end - 1) & mask) + 1;
+    }
+
+    private int offset(int index) {
+        return (index & mask) * recordSize;
+    }
+
+    /**
+     * 新增一个块，块目录满了之后目录扩容为两倍，这里只复制块的引用
+     */
+    private void addChunk() {
+        if ((long) (chunkCount + 1) << chunkShift > Integer.MAX_VALUE) {
+            throw new RuntimeException("array is full");
+        }
+
+        if (chunkCount == chunks.length) {
+            ByteBuffer[] newChunks = new ByteBuffer[chunkCount << 1];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            chunks = newChunks;
+        }
+
+        chunks[chunkCount] = newChunk(chunkCount);
+        chunkCount++;
+    }
+
+    /**
+     * 空闲的块超过一个时释放最后一个块，保留一个空闲的块是为了防止在块的边界来回增删时频繁申请释放
+     */
+    private void releaseChunk() {
+        if (chunkCount >= 2 && (chunkCount - 2) << chunkShift >= size) {
+            freeChunk(chunks[--chunkCount]);
+            chunks[chunkCount] = null;
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+    }
+
+    ByteBuffer chunk(int chunkIndex) {
+        return chunks[chunkIndex];
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("array is closed");
+        }
+    }
+}
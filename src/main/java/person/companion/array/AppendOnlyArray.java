@@ -0,0 +1,205 @@
+package person.companion.array;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 功能描述：无锁的只追加数组，适合多个生产者线程同时追加、多个读线程扫描的场景
+ * 1.追加时通过原子自增reserved抢占一个位置，不同线程写入不同的位置，不需要加锁
+ * 2.数据分块存放，第k个块的长度为 FIRST_CHUNK_SIZE * 2^k，块目录的长度是固定的，
+ * 扩容只需要在目录中CAS放入一个新块，已经写入的数据永远不会被复制，扩容也不会阻塞其他追加线程
+ * 3.写线程写入自己的位置之后就结束了，不再修改其他共享的计数器，追加只在reserved上竞争
+ * 4.读线程只能看到从头开始连续写入完成的部分(已发布的部分)，位置上不为null就表示已经写入完成，
+ * published只是读线程缓存的已发布长度，读线程从它开始往后检查，直到第一个还没写完的位置，再把它推进到这里
+ * 不允许添加null，null表示该位置还没有写入完成
+ *
+ * author: companion
+ * Write by: 2026/10/18 16:10
+ */
+public class AppendOnlyArray<E> implements Iterable<E> {
+    // 第一个块的长度的log2
+    private static final int FIRST_CHUNK_SHIFT = 5;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+    // 块目录的长度，所有块的长度之和为 2^31 - FIRST_CHUNK_SIZE
+    private static final int DIRECTORY_SIZE = 31 - FIRST_CHUNK_SHIFT;
+    private static final int MAX_SIZE = Integer.MAX_VALUE - FIRST_CHUNK_SIZE + 1;
+
+    // 块目录
+    private final AtomicReferenceArray<AtomicReferenceArray<E>> chunks =
+            new AtomicReferenceArray<>(DIRECTORY_SIZE);
+    // 已经被抢占的位置个数
+    private final AtomicInteger reserved = new AtomicInteger();
+    // 读线程看到的已发布元素个数，只由读线程推进，实际已发布的个数可能更多
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * 迭代器，只遍历创建时已经发布的元素
+     */
+    private class AppendOnlyArrayIterator implements Iterator<E> {
+        private final int fence = published();
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < fence;
+        }
+
+        @Override
+        public E next() {
+            if (index >= fence) {
+                throw new NoSuchElementException();
+            }
+
+            return element(index++);
+        }
+    }
+
+    /**
+     * 追加元素
+     *
+     * @param element 元素，不能为null
+     * @return 元素的索引
+     */
+    public int addLast(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+
+        int index = reserved.getAndIncrement();
+        if (index < 0 || index >= MAX_SIZE) {
+            // 回滚，防止溢出之后reserved变成负数
+            reserved.getAndDecrement();
+            throw new RuntimeException("array is full");
+        }
+
+        int chunk = chunkIndex(index);
+        chunk(chunk).set(offset(index, chunk), element);
+        return index;
+    }
+
+    /**
+     * 已经发布的元素个数：从上次看到的位置开始往后检查，直到第一个还没有写入完成的位置
+     *
+     * @return 元素个数
+     */
+    private int published() {
+        int current = published.get();
+        // 溢出回滚期间reserved可能短暂超过MAX_SIZE
+        int limit = reserved.get();
+        if (limit < 0 || limit > MAX_SIZE) {
+            limit = MAX_SIZE;
+        }
+
+        int end = current;
+        while (end < limit && isWritten(end)) {
+            end++;
+        }
+
+        if (end > current) {
+            // 多个读线程同时推进时保留较大的值
+            published.accumulateAndGet(end, Math::max);
+        }
+
+        return end;
+    }
+
+    /**
+     * 位置是否已经写入完成
+     */
+    private boolean isWritten(int index) {
+        int chunk = chunkIndex(index);
+        AtomicReferenceArray<E> data = chunks.get(chunk);
+        return data != null && data.get(offset(index, chunk)) != null;
+    }
+
+    /**
+     * 获取块，不存在时创建，多个线程同时创建时只有一个能放入目录
+     */
+    private AtomicReferenceArray<E> chunk(int chunk) {
+        AtomicReferenceArray<E> data = chunks.get(chunk);
+        if (data == null) {
+            chunks.compareAndSet(chunk, null, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunk));
+            data = chunks.get(chunk);
+        }
+
+        return data;
+    }
+
+    // 查找元素，只能查找已经发布的元素
+    public E get(int index) {
+        if (index < 0 || published.get() <= index && published() <= index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        return element(index);
+    }
+
+    public E getLast() {
+        return get(published() - 1);
+    }
+
+    public int indexOf(E e) {
+        int size = published();
+        for (int i = 0; i < size; i++) {
+            if (element(i).equals(e)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean contains(E e) {
+        return indexOf(e) > -1;
+    }
+
+    /**
+     * 已经发布的元素个数
+     *
+     * @return 元素个数
+     */
+    public int size() {
+        return published();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new AppendOnlyArrayIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(",");
+            }
+        }
+
+        return builder.append("]").toString();
+    }
+
+    private E element(int index) {
+        int chunk = chunkIndex(index);
+        return chunks.get(chunk).get(offset(index, chunk));
+    }
+
+    /**
+     * 计算索引所在的块：第k个块的起始索引为 FIRST_CHUNK_SIZE * (2^k - 1)
+     */
+    private static int chunkIndex(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_SHIFT;
+    }
+
+    /**
+     * 计算索引在块内的位置
+     */
+    private static int offset(int index, int chunk) {
+        return index + FIRST_CHUNK_SIZE - (FIRST_CHUNK_SIZE << chunk);
+    }
+}
@@ -1,6 +1,14 @@
 package person.companion.array;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 功能描述：自定义的一个ArrayList类，学习算法与数据结构
@@ -9,11 +17,17 @@ import java.util.Iterator;
  * Write by: 2021/7/14 11:01
  */
 
-public class Array<E> {
+public class Array<E> implements Sequence<E> {
     // 数组实际元素个数
     private int size;
     // 数组长度
     private int capacity;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数，用于观察是否频繁扩缩容
+    private int resizeCount;
+    // 哈希索引，默认不开启
+    private ArrayIndex<E> index;
 
     E[] data;
 
@@ -23,10 +37,28 @@ public class Array<E> {
     }
 
     public Array(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    public Array(int capacity, ResizePolicy policy) {
         this.capacity = capacity;
+        this.policy = policy;
         data = (E[]) new Object[this.capacity];
     }
 
+    /**
+     * 直接使用传入的数组作为底层数组，不复制，只在包内使用
+     *
+     * @param data 底层数组
+     * @param size 实际元素个数
+     */
+    Array(Object[] data, int size, ResizePolicy policy) {
+        this.data = (E[]) data;
+        this.size = size;
+        this.capacity = data.length;
+        this.policy = policy;
+    }
+
     /**
      * 定义一个迭代器
      */
@@ -46,89 +78,283 @@ public class Array<E> {
 
     /**
      * 在指定位置添加元素方法
-     * 这里需要将插入的元素索引之后的全部元素向后移动一次
+     * 这里需要将插入的元素索引之后的全部元素向后移动一次，使用System.arraycopy整块移动
      *
      * @param index   添加的索引值
      * @param element 元素
      * @return 添加的元素
      */
+    @Override
     public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new RuntimeException("index out of bound");
+        }
+
         // 判断数组是否已满
         if (size == capacity) {
-            capacity = capacity << 1;
-            resize(capacity);
+            ensureCapacity(size + 1);
         }
 
-        if (index < 0 || index >= capacity) {
+        // 将插入元素之后的元素整体后挪一位
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        size++;
+        data[index] = element;
+        if (this.index != null) {
+            if (index == size - 1) {
+                this.index.onAddLast(element, index);
+            } else {
+                this.index.invalidate();
+            }
+        }
+    }
+
+    /**
+     * 在指定位置批量添加元素
+     * 只扩容一次，原有元素整体后挪一次，每个元素只移动一次
+     *
+     * @param index    添加的索引值
+     * @param elements 需要添加的元素集合
+     */
+    public void addAll(int index, Collection<? extends E> elements) {
+        addAll(index, elements.toArray(), elements.size());
+    }
+
+    /**
+     * 在指定位置批量添加另一个Array中的全部元素
+     *
+     * @param index    添加的索引值
+     * @param elements 需要添加的数组
+     */
+    public void addAll(int index, Array<? extends E> elements) {
+        addAll(index, elements.data, elements.size);
+    }
+
+    /**
+     * 批量添加的公共方法
+     *
+     * @param index    添加的索引值
+     * @param elements 需要添加的元素，这里只读取前num个
+     * @param num      添加的元素个数
+     */
+    private void addAll(int index, Object[] elements, int num) {
+        if (index < 0 || index > size) {
             throw new RuntimeException("index out of bound");
         }
 
-        // 将插入元素之后的元素后挪一位
-        for (int i = index; i < size; i++) {
-            data[i + 1] = data[i];
+        if (num == 0) {
+            return;
         }
 
-        size++;
-        data[index] = element;
+        // 容量不够时一次扩容到足够的长度
+        ensureCapacity(size + num);
+
+        // 先将插入位置之后的元素整体后挪num位，再将新元素整块复制进来
+        // 注意elements可能就是data本身(addAll(index, this))，所以先复制一份
+        if (elements == data) {
+            elements = elements.clone();
+        }
+
+        System.arraycopy(data, index, data, index + num, size - index);
+        System.arraycopy(elements, 0, data, index, num);
+        size += num;
+        if (this.index != null) {
+            if (index == size - num) {
+                for (int i = index; i < size; i++) {
+                    this.index.onAddLast(data[i], i);
+                }
+            } else {
+                this.index.invalidate();
+            }
+        }
     }
 
     // 添加元素到最后一位
+    @Override
     public void addLast(E element) {
         add(size, element);
     }
 
     // 修改元素
+    @Override
     public void replace(int index, E e) {
         if (size - 1 < index) {
             throw new RuntimeException("index out of bound");
         }
 
+        if (this.index != null) {
+            this.index.onReplace(data[index], e, index);
+        }
         data[index] = e;
     }
 
     /**
-     * 数组扩容
+     * 保证数组至少能存放minCapacity个元素，按扩容策略计算新的容量
+     *
+     * @param minCapacity 需要的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            resize(policy.grow(capacity, minCapacity));
+        }
+    }
+
+    /**
+     * 将数组容量缩小为实际元素个数
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 数组扩容或缩容
      */
     private void resize(int newCapacity) {
-        // 扩容为原来的两倍
         E[] newData = (E[]) new Object[newCapacity];
-        // 将数据存入新的数组
-        for (int i = 0; i < size; i++) {
-            newData[i] = data[i];
-        }
+        // 将数据整块存入新的数组
+        System.arraycopy(data, 0, newData, 0, size);
 
         data = newData;
+        capacity = newCapacity;
+        resizeCount++;
     }
 
     // 删除元素
+    @Override
     public E delete(int index) {
-        if (size - 1 < index) {
+        if (index < 0 || size - 1 < index) {
             throw new RuntimeException("index out of bound");
         }
 
         E oldValue = data[index];
-        for (int i = index; i < size - 1; i++) {
-            data[i] = data[i + 1];
-        }
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
 
         data[--size] = null;
-        // 如果容量小于三分之一减小数组长度，这里与扩容标准不同是为了防止频繁扩容与缩容
-        if (size < capacity / 3) {
-            capacity = capacity >> 1;
-            resize(capacity);
+        if (this.index != null) {
+            if (index == size) {
+                this.index.onDeleteLast(oldValue);
+            } else {
+                this.index.invalidate();
+            }
         }
+        shrink();
 
         return oldValue;
     }
 
+    /**
+     * 删除[from, to)区间内的所有元素
+     * 区间之后的元素整块前移一次
+     *
+     * @param from 起始索引(包含)
+     * @param to   结束索引(不包含)
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        System.arraycopy(data, to, data, from, size - to);
+        clearTail(size - (to - from));
+        if (index != null) {
+            index.invalidate();
+        }
+        shrink();
+    }
+
+    /**
+     * 删除所有满足条件的元素
+     * 1.先对所有元素调用filter，记录需要删除的位置，filter抛出异常时数组没有任何修改
+     * 2.再压缩：连续需要保留的元素作为一整块复制到写指针的位置，每个元素最多移动一次
+     *
+     * @param filter 删除条件
+     * @return 是否删除了元素
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        BitSet removed = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(data[i])) {
+                removed.set(i);
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return false;
+        }
+
+        // 写指针，[0, write)为已经压缩好的元素，第一个需要删除的元素之前不需要移动
+        int write = removed.nextSetBit(0);
+        // 每次把一段连续需要保留的元素[start, end)整块前移
+        for (int start = removed.nextClearBit(write); start < size; ) {
+            int end = removed.nextSetBit(start);
+            if (end < 0) {
+                end = size;
+            }
+
+            write = compact(start, end, write);
+            start = removed.nextClearBit(end);
+        }
+
+        clearTail(write);
+        if (index != null) {
+            index.invalidate();
+        }
+        shrink();
+        return true;
+    }
+
+    /**
+     * 将[start, end)的元素整块复制到write位置
+     *
+     * @return 复制之后新的写指针
+     */
+    private int compact(int start, int end, int write) {
+        if (start != write) {
+            System.arraycopy(data, start, data, write, end - start);
+        }
+
+        return write + end - start;
+    }
+
+    /**
+     * 将newSize之后的引用置空，方便垃圾回收
+     *
+     * @param newSize 新的元素个数
+     */
+    private void clearTail(int newSize) {
+        for (int i = newSize; i < size; i++) {
+            data[i] = null;
+        }
+
+        size = newSize;
+    }
+
+    /**
+     * 按缩容策略减小数组长度，缩容阈值与扩容标准不同是为了防止频繁扩容与缩容
+     */
+    private void shrink() {
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+    }
+
     // 查找元素
+    @Override
     public E get(int index) {
         // 这里数组越界会自动抛出异常，不用我们手动抛出
         // 前面手动抛出是因为后面还有代码需要执行
         return data[index];
     }
 
+    @Override
     public int indexOf(E e) {
+        if (index != null) {
+            return index.indexOf(e, data, size);
+        }
+
         for (int i = 0; i < size; i++) {
             if (data[i].equals(e)) {
                 return i;
@@ -138,10 +364,73 @@ public class Array<E> {
         return -1;
     }
 
+    @Override
     public boolean contains(E e) {
         return indexOf(e) > -1;
     }
 
+    /**
+     * 开启哈希索引，indexOf/contains变为O(1)
+     * 在末尾增删以及修改元素时增量维护索引，在中间插入删除时索引失效，
+     * 失效期间的查询使用线性查找，线性查找的累计开销达到一次重建的几倍时才重建(O(n))
+     */
+    public void enableIndex() {
+        if (index == null) {
+            index = new ArrayIndex<>(data, size);
+        }
+    }
+
+    /**
+     * 关闭哈希索引，释放索引占用的内存
+     */
+    public void disableIndex() {
+        index = null;
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * 获取索引重建的次数，用于判断索引的维护开销是否值得
+     *
+     * @return 索引重建的次数，未开启索引时返回0
+     */
+    public int getIndexRebuildCount() {
+        return index == null ? 0 : index.getRebuildCount();
+    }
+
+    /**
+     * 按自然顺序原地排序，使用并行归并排序，相等的元素保持原来的顺序
+     */
+    public void sort() {
+        sort(null);
+    }
+
+    /**
+     * 按比较器原地排序，使用并行归并排序，相等的元素保持原来的顺序
+     *
+     * @param comparator 比较器，为null时按自然顺序
+     */
+    public void sort(Comparator<? super E> comparator) {
+        ParallelMergeSort.sort(data, 0, size, comparator);
+        if (index != null) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * 按自然顺序排序之后创建SortArray，当前数组不会被修改
+     * 排序结果直接作为SortArray的底层数组，不需要再逐个插入
+     *
+     * @return 有序数组
+     */
+    public SortArray<E> toSortArray() {
+        Object[] sorted = Arrays.copyOf(data, Math.max(size, 1));
+        ParallelMergeSort.sort(sorted, 0, size, null);
+        return new SortArray<>(sorted, size, policy);
+    }
+
     // 覆写打印方法
     @Override
     public String toString() {
@@ -159,19 +448,64 @@ public class Array<E> {
         return builder.substring(0, builder.length() - 1) + "]";
     }
 
+    @Override
     public E deleteLast() {
         return delete(size - 1);
     }
 
+    @Override
     public int size() {
         return size;
     }
 
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
     public E getLast() {
         return data[size - 1];
     }
 
+    @Override
     public ArrayIterator iterator() {
         return new ArrayIterator();
     }
+
+    /**
+     * 获取可拆分的迭代器，按索引均匀拆分
+     *
+     * @return Spliterator
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArraySpliterator<>(data, 0, size, 0);
+    }
+
+    /**
+     * 获取顺序流
+     *
+     * @return 顺序流
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 获取并行流，使用公共的ForkJoinPool
+     *
+     * @return 并行流
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
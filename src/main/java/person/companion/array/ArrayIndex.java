@@ -0,0 +1,153 @@
+package person.companion.array;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 功能描述：Array的哈希索引，保存 元素 -> 该元素所有位置(升序) 的映射，让indexOf/contains变为O(1)
+ * 1.在末尾追加、删除末尾元素、修改元素时增量维护索引，只需要修改一个元素的位置列表
+ * 2.在中间插入或删除时，后面所有元素的位置都变了，这时只把索引标记为失效，失效期间的查询直接线性查找，
+ * 与不开启索引时一样；最近一次中间修改之后，累计线性查找比较过的元素个数达到 REBUILD_FACTOR * size 时
+ * (线性查找已经花掉了大约一次重建的时间)才整体重建索引(O(n))，之后的查询恢复为O(1)
+ * 3.中间插入删除与查询交替进行时，每次修改都重新累计，一直使用线性查找，开销与不开启索引时相同，不会每次都重建；
+ * 一次中间修改之后查询很多次时，线性查找的总开销与一次重建差不多时才重建，
+ * 总开销最多是 事先知道之后会查询多少次时最优选择 的两倍左右
+ *
+ * author: companion
+ * Write by: 2026/10/18 16:50
+ */
+class ArrayIndex<E> {
+    // 位置列表大多只有一两个元素，不需要默认的最小容量
+    private static final ResizePolicy POSITIONS_POLICY = new ResizePolicy(2, 0.25, 1, true);
+
+    // 失效之后累计线性查找的元素个数达到 REBUILD_FACTOR * size 时重建
+    // 重建时每个元素都要计算哈希、分配位置列表和HashMap节点，实测10万个Integer时重建一次的时间大约是线性查找一遍的几十倍
+    private static final int REBUILD_FACTOR = 64;
+
+    private Map<E, IntArray> positions = new HashMap<>();
+    // 索引是否失效，失效期间使用线性查找
+    private boolean dirty;
+    // 失效之后线性查找已经比较过的元素个数
+    private long scanned;
+    // 重建次数，用于观察索引维护的开销
+    private int rebuildCount;
+
+    ArrayIndex(E[] data, int size) {
+        rebuild(data, size);
+    }
+
+    /**
+     * 在末尾追加了元素，新位置一定是最大的，直接加到位置列表的最后
+     */
+    void onAddLast(E e, int index) {
+        if (!dirty) {
+            positions.computeIfAbsent(e, k -> new IntArray(1, POSITIONS_POLICY)).addLast(index);
+        }
+    }
+
+    /**
+     * 删除了末尾的元素，被删除的位置一定是该元素位置列表中的最后一个
+     */
+    void onDeleteLast(E e) {
+        if (!dirty) {
+            IntArray list = positions.get(e);
+            list.deleteLast();
+            if (list.size() == 0) {
+                positions.remove(e);
+            }
+        }
+    }
+
+    /**
+     * 修改了index处的元素
+     */
+    void onReplace(E oldValue, E e, int index) {
+        if (dirty) {
+            return;
+        }
+
+        IntArray oldList = positions.get(oldValue);
+        oldList.delete(search(oldList, index));
+        if (oldList.size() == 0) {
+            positions.remove(oldValue);
+        }
+
+        IntArray list = positions.computeIfAbsent(e, k -> new IntArray(1, POSITIONS_POLICY));
+        list.add(search(list, index), index);
+    }
+
+    /**
+     * 中间插入或删除之后元素的位置发生了变化，将索引标记为失效，同时释放旧的位置列表
+     * 每次中间修改都重新开始累计线性查找的开销：两次修改之间查询很少时，重建之后马上又会失效，不如一直线性查找
+     */
+    void invalidate() {
+        if (!dirty) {
+            dirty = true;
+            positions = new HashMap<>();
+        }
+
+        scanned = 0;
+    }
+
+    /**
+     * 查找元素第一次出现的位置，索引失效时先线性查找，线性查找的开销累计到足够多时再重建
+     */
+    int indexOf(E e, E[] data, int size) {
+        if (dirty) {
+            if (scanned < (long) REBUILD_FACTOR * size) {
+                int i = linearIndexOf(e, data, size);
+                scanned += i < 0 ? size : i + 1;
+                return i;
+            }
+
+            rebuild(data, size);
+        }
+
+        IntArray list = positions.get(e);
+        return list == null ? -1 : list.get(0);
+    }
+
+    int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private static <E> int linearIndexOf(E e, E[] data, int size) {
+        for (int i = 0; i < size; i++) {
+            if (data[i].equals(e)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void rebuild(E[] data, int size) {
+        // 按元素个数预先分配，重建时不需要扩容
+        positions = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        dirty = false;
+        scanned = 0;
+        for (int i = 0; i < size; i++) {
+            onAddLast(data[i], i);
+        }
+
+        rebuildCount++;
+    }
+
+    /**
+     * 在升序的位置列表中二分查找index，不存在时返回插入位置
+     */
+    private static int search(IntArray list, int index) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid) < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,96 @@
+package person.companion.array;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 功能描述：Array与SortArray共用的Spliterator
+ * 每次从中间按索引对半拆分，拆分出来的两部分大小确定，因此是SIZED|SUBSIZED的，
+ * 并行流可以通过ForkJoinPool把数据均匀地分给多个线程处理
+ * 创建时就绑定了底层数组和元素个数，遍历期间不要修改数组
+ *
+ * author: companion
+ * Write by: 2026/10/18 13:10
+ */
+class ArraySpliterator<E> implements Spliterator<E> {
+    // 底层数组
+    private final Object[] data;
+    // 当前遍历到的索引
+    private int index;
+    // 结束索引(不包含)
+    private final int fence;
+    private final int characteristics;
+
+    /**
+     * @param data            底层数组
+     * @param origin          起始索引(包含)
+     * @param fence           结束索引(不包含)
+     * @param characteristics 除SIZED|SUBSIZED|ORDERED之外额外的特征，例如SORTED
+     */
+    ArraySpliterator(Object[] data, int origin, int fence, int characteristics) {
+        this.data = data;
+        this.index = origin;
+        this.fence = fence;
+        this.characteristics = characteristics | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED;
+    }
+
+    /**
+     * 从中间拆分，返回前半部分，当前对象保留后半部分
+     *
+     * @return 前半部分，无法再拆分时返回null
+     */
+    @Override
+    public Spliterator<E> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid) {
+            return null;
+        }
+
+        index = mid;
+        return new ArraySpliterator<>(data, lo, mid, characteristics);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index >= fence) {
+            return false;
+        }
+
+        action.accept((E) data[index++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        // 批量遍历时不需要每次都判断和更新index
+        int i = index;
+        index = fence;
+        for (; i < fence; i++) {
+            action.accept((E) data[i]);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * SortArray按照元素的自然顺序排序，所以返回null
+     */
+    @Override
+    public Comparator<? super E> getComparator() {
+        if (hasCharacteristics(Spliterator.SORTED)) {
+            return null;
+        }
+
+        throw new IllegalStateException();
+    }
+}
@@ -1,8 +1,27 @@
 package person.companion.array;
 
+import org.junit.Assert;
 import org.junit.Test;
+import person.companion.tree.AVLTree;
+import person.companion.tree.RBTree;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * 功能描述：测试自定义的Array数组
@@ -62,4 +81,1141 @@ public class ArrayTest {
         integers1.add(0);
         System.out.println(integers1);
     }
+
+    /**
+     * 测试Array的批量插入与批量删除
+     */
+    @Test
+    public void test3() {
+        Array<Integer> array = new Array<>(4);
+        for (int i = 0; i < 6; i++) {
+            array.addLast(i);
+        }
+
+        // 中间插入，之前逐个后挪的写法会把后面的元素覆盖成同一个值
+        array.add(2, 100);
+        System.out.println(array);
+        Assert.assertEquals("[0,1,100,2,3,4,5]", array.toString());
+
+        array.addAll(1, Arrays.asList(7, 8, 9));
+        System.out.println(array);
+        Assert.assertEquals("[0,7,8,9,1,100,2,3,4,5]", array.toString());
+
+        array.addAll(array.size(), array);
+        Assert.assertEquals(20, array.size());
+
+        array.removeRange(10, 20);
+        System.out.println(array);
+        Assert.assertEquals("[0,7,8,9,1,100,2,3,4,5]", array.toString());
+
+        // 判断条件抛出异常时数组保持不变
+        try {
+            array.removeIf(e -> {
+                if (e == 3) {
+                    throw new IllegalStateException();
+                }
+                return e % 2 == 0;
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("[0,7,8,9,1,100,2,3,4,5]", array.toString());
+        }
+
+        array.removeIf(e -> e % 2 == 0);
+        System.out.println(array);
+        Assert.assertEquals("[7,9,1,3,5]", array.toString());
+        Assert.assertFalse(array.removeIf(e -> e > 100));
+        Assert.assertTrue(array.removeIf(e -> e != 1));
+        Assert.assertEquals("[1]", array.toString());
+    }
+
+    /**
+     * 测试基本类型的Array，并且与Array<Integer>对比内存占用
+     */
+    @Test
+    public void test4() {
+        IntArray ints = new IntArray(2);
+        LongArray longs = new LongArray(2);
+        DoubleArray doubles = new DoubleArray(2);
+        for (int i = 0; i < 5; i++) {
+            ints.addLast(i);
+            longs.addLast(i * 10L);
+            doubles.addLast(i / 2.0);
+        }
+
+        ints.add(1, 100);
+        longs.delete(0);
+        doubles.replace(0, Double.NaN);
+        System.out.println(ints + " " + longs + " " + doubles);
+        Assert.assertEquals("[0,100,1,2,3,4]", ints.toString());
+        Assert.assertEquals(3, longs.indexOf(40L));
+        Assert.assertTrue(doubles.contains(Double.NaN));
+
+        long sum = 0;
+        PrimitiveIterator.OfInt iterator = ints.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.nextInt();
+        }
+        Assert.assertEquals(110, sum);
+
+        // 内存占用对比，这里只是粗略估算，数值大小与JVM参数有关
+        int n = 1_000_000;
+        long before = usedMemory();
+        Array<Integer> boxed = new Array<>(n);
+        for (int i = 0; i < n; i++) {
+            // 避开Integer缓存的-128~127
+            boxed.addLast(i + 1000);
+        }
+        long boxedBytes = usedMemory() - before;
+
+        before = usedMemory();
+        IntArray primitive = new IntArray(n);
+        for (int i = 0; i < n; i++) {
+            primitive.addLast(i + 1000);
+        }
+        long primitiveBytes = usedMemory() - before;
+
+        System.out.printf("Array<Integer>: %d bytes/element, IntArray: %d bytes/element%n",
+                boxedBytes / n, primitiveBytes / n);
+        // 保证对象在统计时还存活
+        Assert.assertEquals(boxed.size(), primitive.size());
+    }
+
+    /**
+     * 测试扩容缩容策略：在缩容临界点附近来回增删元素
+     */
+    @Test
+    public void test5() {
+        // 原来的策略：两倍扩容，小于三分之一时缩容一半
+        ResizePolicy old = new ResizePolicy(2, 1.0 / 3, 1, true);
+        ResizePolicy[] policies = {old, ResizePolicy.DEFAULT, ResizePolicy.neverShrink(1.5, 10)};
+        for (ResizePolicy policy : policies) {
+            Array<Integer> array = new Array<>(1, policy);
+            for (int i = 0; i < 24; i++) {
+                array.addLast(i);
+            }
+
+            int before = array.getResizeCount();
+            // 在临界点附近来回删除添加
+            for (int i = 0; i < 100; i++) {
+                for (int j = 0; j < 14; j++) {
+                    array.deleteLast();
+                }
+
+                for (int j = 0; j < 14; j++) {
+                    array.addLast(j);
+                }
+            }
+
+            System.out.println(policy + " resize count: " + (array.getResizeCount() - before));
+        }
+
+        Array<Integer> array = new Array<>(2);
+        array.ensureCapacity(100);
+        Assert.assertEquals(100, array.capacity());
+        array.addLast(1);
+        array.trimToSize();
+        Assert.assertEquals(1, array.capacity());
+        Assert.assertEquals(2, array.getResizeCount());
+    }
+
+    /**
+     * 测试Spliterator与并行流
+     */
+    @Test
+    public void test6() {
+        int n = 1_000_000;
+        Array<Integer> array = new Array<>(n);
+        for (int i = 0; i < n; i++) {
+            array.addLast(i);
+        }
+
+        long expected = (long) n * (n - 1) / 2;
+        Assert.assertEquals(expected, array.stream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(expected, array.parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(n / 2, array.parallelStream().filter(e -> e % 2 == 0).count());
+
+        Spliterator<Integer> spliterator = array.spliterator();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        Assert.assertEquals(n / 2, prefix.estimateSize());
+        Assert.assertEquals(n - n / 2, spliterator.estimateSize());
+
+        SortArray<Integer> sortArray = new SortArray<>();
+        sortArray.add(3);
+        sortArray.add(1);
+        sortArray.add(2);
+        Assert.assertTrue(sortArray.spliterator().hasCharacteristics(Spliterator.SORTED));
+        System.out.println(sortArray.parallelStream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 测试分段数组，随机增删并与ArrayList的结果对比
+     */
+    @Test
+    public void test7() {
+        Random random = new Random(7);
+        SegmentedArray<Integer> array = new SegmentedArray<>(8);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                array.add(index, i);
+                expected.add(index, i);
+            } else {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.remove(index), array.delete(index));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), array.size());
+        Assert.assertEquals(expected.toString().replace(" ", ""), array.toString());
+
+        // 全部删除之后只保留一个空闲的块
+        while (array.size() > 0) {
+            array.delete(0);
+        }
+        System.out.println("chunk count after clear: " + array.chunkCount());
+        Assert.assertTrue(array.chunkCount() <= 1);
+    }
+
+    /**
+     * 测试间隙缓冲区数组：在编辑位置附近连续增删，偶尔跳到其他位置
+     */
+    @Test
+    public void test8() {
+        Random random = new Random(8);
+        GapArray<Integer> array = new GapArray<>(4);
+        List<Integer> expected = new ArrayList<>();
+        int cursor = 0;
+        for (int i = 0; i < 20000; i++) {
+            // 十分之一的概率跳到随机位置
+            if (random.nextInt(10) == 0) {
+                cursor = random.nextInt(expected.size() + 1);
+            }
+
+            if (random.nextInt(3) > 0 || cursor == 0) {
+                array.add(cursor, i);
+                expected.add(cursor, i);
+                cursor++;
+            } else {
+                // 退格删除编辑位置前面的元素
+                cursor--;
+                Assert.assertEquals(expected.remove(cursor), array.delete(cursor));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), array.size());
+        Assert.assertEquals(expected.toString().replace(" ", ""), array.toString());
+        Assert.assertEquals(expected.get(expected.size() / 2), array.get(expected.size() / 2));
+        System.out.println("size: " + array.size() + ", cursor: " + array.cursor()
+                + ", resize count: " + array.getResizeCount());
+    }
+
+    /**
+     * 测试写时复制数组：多个读线程遍历的同时写线程批量修改
+     */
+    @Test
+    public void test9() throws Exception {
+        ConcurrentArray<Integer> array = new ConcurrentArray<>();
+        for (int i = 0; i < 1000; i++) {
+            array.addLast(i);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    // 每个快照要么是修改前的版本，要么是修改后的版本，大小总是1000的整数倍
+                    int count = 0;
+                    for (Integer ignored : array) {
+                        count++;
+                    }
+
+                    if (count % 1000 != 0) {
+                        consistent.set(false);
+                    }
+                    reads.incrementAndGet();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            int base = array.size();
+            Consumer<Array<Integer>> append = a -> {
+                for (int j = 0; j < 1000; j++) {
+                    a.addLast(base + j);
+                }
+            };
+            // 一半的批次预估最终长度
+            if (i % 2 == 0) {
+                array.batch(append);
+            } else {
+                array.batch(base + 1000, append);
+            }
+        }
+        List<Integer> tail = new ArrayList<>();
+        for (int j = 0; j < 1000; j++) {
+            tail.add(array.size() + j);
+        }
+        array.addAll(tail);
+
+        try {
+            array.removeIf(e -> {
+                if (e == 30_000) {
+                    throw new IllegalStateException();
+                }
+                return e >= 1000;
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // 判断条件抛出异常时不发布任何修改
+            Assert.assertEquals(52_000, array.size());
+        }
+        Assert.assertFalse(array.removeIf(e -> e < 0));
+        Assert.assertTrue(array.removeIf(e -> e >= 1000));
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        System.out.println("snapshot reads: " + reads.get());
+        Assert.assertTrue(consistent.get());
+        Assert.assertEquals(1000, array.size());
+        Assert.assertEquals(999, array.getLast().intValue());
+        Assert.assertEquals(500, array.indexOf(500));
+        List<Integer> snapshot = array.snapshot();
+        array.delete(0);
+        Assert.assertEquals(1000, snapshot.size());
+    }
+
+    /**
+     * 测试无锁只追加数组，并与加锁的Array对比多线程追加的吞吐量
+     */
+    @Test
+    public void test10() throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int perThread = 500_000;
+
+        AppendOnlyArray<Integer> appendOnly = new AppendOnlyArray<>();
+        long time = runProducers(threads, perThread, appendOnly::addLast);
+        System.out.printf("AppendOnlyArray: %d threads, %.1f M ops/s%n",
+                threads, (double) threads * perThread / time);
+
+        Array<Integer> locked = new Array<>();
+        long lockedTime = runProducers(threads, perThread, e -> {
+            synchronized (locked) {
+                locked.addLast(e);
+            }
+        });
+        System.out.printf("synchronized Array: %d threads, %.1f M ops/s%n",
+                threads, (double) threads * perThread / lockedTime);
+
+        // 每个元素都出现且只出现一次
+        Assert.assertEquals(threads * perThread, appendOnly.size());
+        boolean[] seen = new boolean[threads * perThread];
+        for (Integer e : appendOnly) {
+            Assert.assertFalse(seen[e]);
+            seen[e] = true;
+        }
+    }
+
+    /**
+     * 测试Array的哈希索引，包括查询收益和索引维护的开销
+     */
+    @Test
+    public void test11() {
+        // 正确性：随机操作之后索引的结果与线性查找一致
+        Random random = new Random(11);
+        Array<Integer> indexed = new Array<>();
+        Array<Integer> plain = new Array<>();
+        indexed.enableIndex();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(10);
+            int value = random.nextInt(100);
+            if (op < 5 || plain.size() == 0) {
+                indexed.addLast(value);
+                plain.addLast(value);
+            } else if (op < 7) {
+                int index = random.nextInt(plain.size());
+                indexed.replace(index, value);
+                plain.replace(index, value);
+            } else if (op < 8) {
+                indexed.deleteLast();
+                plain.deleteLast();
+            } else if (op < 9) {
+                int index = random.nextInt(plain.size());
+                indexed.delete(index);
+                plain.delete(index);
+            } else {
+                int index = random.nextInt(plain.size());
+                indexed.add(index, value);
+                plain.add(index, value);
+            }
+
+            Assert.assertEquals(plain.indexOf(value), indexed.indexOf(value));
+            int probe = random.nextInt(100);
+            Assert.assertEquals(plain.indexOf(probe), indexed.indexOf(probe));
+        }
+
+        // 性能：10万个元素上做contains查询
+        int n = 100_000;
+        int queries = 20_000;
+        Array<Integer> linear = new Array<>(n);
+        Array<Integer> hashed = new Array<>(n);
+        hashed.enableIndex();
+        // 提前装箱，两个数组保存同一批对象，线性查找时的内存访问相同
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            linear.addLast(values[i]);
+        }
+        long linearAppend = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            hashed.addLast(values[i]);
+        }
+        long hashedAppend = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < queries; i++) {
+            hits += linear.contains(random.nextInt(2 * n)) ? 1 : 0;
+        }
+        long linearQuery = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            hits += hashed.contains(random.nextInt(2 * n)) ? 1 : 0;
+        }
+        long hashedQuery = System.nanoTime() - begin;
+
+        // 中间插入与查询交替：索引失效期间使用线性查找，不会每次查询都重建
+        // 两种数组交替测两遍，只记录第二遍，避免JIT预热的影响
+        int rounds = 1000;
+        long linearInterleaved = 0;
+        long hashedInterleaved = 0;
+        int interleavedRebuilds = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            linearInterleaved = insertAndQuery(linear, rounds, random);
+            int rebuildsBefore = hashed.getIndexRebuildCount();
+            hashedInterleaved = insertAndQuery(hashed, rounds, random);
+            interleavedRebuilds = hashed.getIndexRebuildCount() - rebuildsBefore;
+            // 每次中间插入之后只查询一次，线性查找的开销达不到重建的开销，一直不重建
+            Assert.assertEquals(0, interleavedRebuilds);
+        }
+
+        // 一次中间插入之后大量查询：只重建一次，之后恢复为O(1)
+        int rebuildsBefore = hashed.getIndexRebuildCount();
+        hashed.add(n / 2, -1);
+        begin = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            hits += hashed.contains(random.nextInt(2 * n)) ? 1 : 0;
+        }
+        long hashedAfterEdit = System.nanoTime() - begin;
+        Assert.assertEquals(1, hashed.getIndexRebuildCount() - rebuildsBefore);
+
+        System.out.printf("append %d: plain %d us, indexed %d us%n", n, linearAppend / 1000, hashedAppend / 1000);
+        System.out.printf("contains x %d: linear %d us, indexed %d us%n", queries, linearQuery / 1000, hashedQuery / 1000);
+        System.out.printf("%d x (middle insert + contains): linear %d us, indexed %d us, rebuild count %d%n",
+                rounds, linearInterleaved / 1000, hashedInterleaved / 1000, interleavedRebuilds);
+        System.out.printf("middle insert + contains x %d: indexed %d us, hits %d%n",
+                queries, hashedAfterEdit / 1000, hits);
+    }
+
+    /**
+     * 交替进行rounds次中间插入和contains查询
+     *
+     * @return 耗时(纳秒)
+     */
+    private static long insertAndQuery(Array<Integer> array, int rounds, Random random) {
+        int n = array.size();
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            array.add(n / 2, -i);
+            array.contains(random.nextInt(2 * n));
+        }
+
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * 测试堆外记录数组，记录为五子棋稀疏数组中的一行(行号, 列号, 值)
+     */
+    @Test
+    public void test12() {
+        Random random = new Random(12);
+        List<int[]> expected = new ArrayList<>();
+        // 每块只放4条记录，让移动记录时跨越多个块
+        try (OffHeapRecordArray<int[]> rows = new OffHeapRecordArray<>(RecordCodec.ofInts(3), 4)) {
+            for (int i = 0; i < 3000; i++) {
+                int[] row = {random.nextInt(11), random.nextInt(11), random.nextInt(3)};
+                if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                    int index = random.nextInt(expected.size() + 1);
+                    rows.add(index, row);
+                    expected.add(index, row);
+                } else {
+                    int index = random.nextInt(expected.size());
+                    Assert.assertArrayEquals(expected.remove(index), rows.delete(index));
+                }
+            }
+
+            Assert.assertEquals(expected.size(), rows.size());
+            int i = 0;
+            for (int[] row : rows) {
+                Assert.assertArrayEquals(expected.get(i++), row);
+            }
+
+            // 直接读写字段，不解码整条记录
+            rows.putInt(0, 2 * Integer.BYTES, 9);
+            Assert.assertEquals(9, rows.getInt(0, 2 * Integer.BYTES));
+            System.out.println("records: " + rows.size() + ", off-heap bytes: " + rows.offHeapBytes());
+        }
+    }
+
+    /**
+     * 测试内存映射文件数组：写入之后关闭，重新打开时数据还在
+     */
+    @Test
+    public void test13() throws IOException {
+        Path file = Files.createTempFile("mapped-array", ".dat");
+        Files.delete(file);
+        try {
+            int n = 100_000;
+            // 每块4096条记录，写入时会映射多个块
+            try (MappedArray<Long> array = MappedArray.open(file, RecordCodec.ofLong(), 4096)) {
+                for (int i = 0; i < n; i++) {
+                    array.addLast((long) i * i);
+                }
+
+                array.replace(1, -1L);
+                array.delete(0);
+            }
+
+            long begin = System.nanoTime();
+            try (MappedArray<Long> array = MappedArray.open(file, RecordCodec.ofLong())) {
+                System.out.printf("reopen %d records in %d us, file size %d bytes%n",
+                        array.size(), (System.nanoTime() - begin) / 1000, Files.size(file));
+                Assert.assertEquals(n - 1, array.size());
+                Assert.assertEquals(-1L, array.get(0).longValue());
+                Assert.assertEquals((long) (n - 1) * (n - 1), array.getLong(n - 2, 0));
+                array.addLast(7L);
+            }
+
+            try (MappedArray<Long> array = MappedArray.open(file, RecordCodec.ofLong())) {
+                Assert.assertEquals(n, array.size());
+                Assert.assertEquals(7L, array.getLast().longValue());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 测试SortArray的二分查找，相等元素按插入顺序排列
+     */
+    @Test
+    public void test14() {
+        SortArray<Integer> integers = new SortArray<>();
+        int[] values = {5, 3, 7, 3, 4, 0, 7, 3};
+        for (int value : values) {
+            integers.add(value);
+        }
+
+        System.out.println(integers);
+        Assert.assertEquals("[0,3,3,3,4,5,7,7]", integers.toString());
+        Assert.assertEquals(1, integers.lowerBound(3));
+        Assert.assertEquals(4, integers.upperBound(3));
+        Assert.assertEquals(8, integers.lowerBound(9));
+        Assert.assertEquals(6, integers.indexOf(7));
+        Assert.assertEquals(-1, integers.indexOf(6));
+        Assert.assertFalse(integers.contains(-1));
+
+        // 比较相等但equals不同的元素，新元素放在已有元素之后
+        SortArray<Version> versions = new SortArray<>();
+        versions.add(new Version(1, "a"));
+        versions.add(new Version(2, "b"));
+        versions.add(new Version(1, "c"));
+        Assert.assertEquals("c", versions.get(1).tag);
+        Assert.assertEquals(1, versions.indexOf(new Version(1, "c")));
+
+        int n = 1_000_000;
+        SortArray<Integer> large = new SortArray<>();
+        for (int i = 0; i < n; i++) {
+            large.add(i * 2);
+        }
+
+        long begin = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < n; i++) {
+            hits += large.contains(i) ? 1 : 0;
+        }
+        System.out.printf("%d contains on %d elements: %d ms%n", n, n, (System.nanoTime() - begin) / 1_000_000);
+        Assert.assertEquals(n / 2, hits);
+    }
+
+    /**
+     * 测试SortArray的批量加载与批量归并
+     */
+    @Test
+    public void test15() {
+        SortArray<Integer> integers = SortArray.fromUnsorted(Arrays.asList(5, 3, 7, 3));
+        integers.addAll(Arrays.asList(4, 9, 0, 3));
+        System.out.println(integers);
+        Assert.assertEquals("[0,3,3,3,4,5,7,9]", integers.toString());
+
+        SortArray<Version> versions = SortArray.fromUnsorted(Arrays.asList(new Version(1, "a"), new Version(0, "b")));
+        versions.addAll(Arrays.asList(new Version(1, "c"), new Version(1, "d")));
+        Assert.assertEquals("b", versions.get(0).tag);
+        Assert.assertEquals("a", versions.get(1).tag);
+        Assert.assertEquals("c", versions.get(2).tag);
+        Assert.assertEquals("d", versions.get(3).tag);
+
+        // 一次加载100万个元素，再归并10万个元素
+        Random random = new Random(15);
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            rows.add(random.nextInt());
+        }
+
+        long begin = System.nanoTime();
+        SortArray<Integer> table = SortArray.fromUnsorted(rows);
+        table.addAll(rows.subList(0, 100_000));
+        System.out.printf("bulk load 1000000 + merge 100000: %d ms%n", (System.nanoTime() - begin) / 1_000_000);
+        Assert.assertEquals(1_100_000, table.size());
+        for (int i = 1; i < table.size(); i++) {
+            Assert.assertTrue(table.get(i - 1) <= table.get(i));
+        }
+    }
+
+    /**
+     * 测试SortArray的floor/ceiling、rank/select以及区间视图
+     */
+    @Test
+    public void test16() {
+        SortArray<Integer> times = SortArray.fromUnsorted(Arrays.asList(10, 20, 20, 30, 40, 50));
+        Assert.assertEquals(Integer.valueOf(20), times.floor(25));
+        Assert.assertEquals(Integer.valueOf(20), times.floor(20));
+        Assert.assertNull(times.floor(5));
+        Assert.assertEquals(Integer.valueOf(30), times.ceiling(25));
+        Assert.assertNull(times.ceiling(55));
+        Assert.assertEquals(Integer.valueOf(30), times.higher(20));
+        Assert.assertNull(times.higher(50));
+        Assert.assertEquals(Integer.valueOf(10), times.lower(20));
+        Assert.assertNull(times.lower(10));
+
+        Assert.assertEquals(1, times.rank(20));
+        Assert.assertEquals(3, times.rank(25));
+        Assert.assertEquals(Integer.valueOf(30), times.select(times.rank(30)));
+
+        // 时间窗口[20, 40)
+        SortArray<Integer>.Range window = times.subRange(20, 40);
+        System.out.println(window);
+        Assert.assertEquals("[20,20,30]", window.toString());
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals(Integer.valueOf(30), window.get(2));
+        Assert.assertEquals(70, window.stream().mapToInt(Integer::intValue).sum());
+        Assert.assertEquals(0, times.subRange(41, 49).size());
+        Assert.assertEquals(0, times.subRange(40, 20).size());
+        Assert.assertEquals("[]", times.subRange(60, 70).toString());
+
+        int count = 0;
+        for (Integer time : times.subRange(0, 100)) {
+            count++;
+        }
+        Assert.assertEquals(times.size(), count);
+    }
+
+    /**
+     * 测试Eytzinger顺序的只读快照，并与普通二分查找比较查询速度
+     * 默认比较1K与1M个元素，加上-Dfrozen.large=true时再比较1亿个int(需要约1G堆内存)
+     */
+    @Test
+    public void test17() {
+        Random random = new Random(17);
+        for (int n = 0; n < 40; n++) {
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                values.add(random.nextInt(20));
+            }
+
+            SortArray<Integer> sorted = SortArray.fromUnsorted(values);
+            FrozenSortArray<Integer> frozen = sorted.freeze();
+            FrozenIntSortArray frozenInts = FrozenIntSortArray.of(values.stream().mapToInt(Integer::intValue).toArray());
+            Assert.assertEquals(sorted.toList().toString().replace(" ", ""), frozen.toString());
+            Assert.assertEquals(frozen.toString(), frozenInts.toString());
+            for (int value = -1; value <= 21; value++) {
+                Assert.assertEquals(sorted.ceiling(value), frozen.ceiling(value));
+                Assert.assertEquals(sorted.higher(value), frozen.higher(value));
+                Assert.assertEquals(sorted.contains(value), frozen.contains(value));
+                Assert.assertEquals(sorted.contains(value), frozenInts.contains(value));
+                Integer ceiling = sorted.ceiling(value);
+                Assert.assertEquals(ceiling == null ? Integer.MIN_VALUE : ceiling, frozenInts.ceiling(value, Integer.MIN_VALUE));
+            }
+        }
+
+        // 比较相等但不equals的元素，需要检查相等的一整段
+        SortArray<Version> versions = SortArray.fromUnsorted(Arrays.asList(new Version(1, "a"), new Version(0, "b"),
+                new Version(1, "c"), new Version(2, "d"), new Version(1, "e")));
+        FrozenSortArray<Version> frozenVersions = versions.freeze();
+        for (String tag : Arrays.asList("a", "b", "c", "d", "e", "f")) {
+            for (int number = 0; number <= 3; number++) {
+                Version probe = new Version(number, tag);
+                Assert.assertEquals(versions.contains(probe), frozenVersions.contains(probe));
+            }
+        }
+        Assert.assertTrue(frozenVersions.contains(new Version(1, "c")));
+        Assert.assertTrue(frozenVersions.contains(new Version(1, "e")));
+        Assert.assertFalse(frozenVersions.contains(new Version(1, "b")));
+
+        List<Integer> sizes = new ArrayList<>(Arrays.asList(1_000, 1_000_000));
+        if (Boolean.getBoolean("frozen.large")) {
+            sizes.add(100_000_000);
+        }
+
+        int queries = 2_000_000;
+        for (int n : sizes) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = 3 * i;
+            }
+            int[] probes = new int[queries];
+            for (int i = 0; i < queries; i++) {
+                probes[i] = random.nextInt(3 * n);
+            }
+
+            FrozenIntSortArray frozenInts = FrozenIntSortArray.ofSorted(keys);
+            long begin = System.nanoTime();
+            int binaryHits = 0;
+            for (int probe : probes) {
+                binaryHits += Arrays.binarySearch(keys, probe) >= 0 ? 1 : 0;
+            }
+            long binary = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            int eytzingerHits = 0;
+            for (int probe : probes) {
+                eytzingerHits += frozenInts.contains(probe) ? 1 : 0;
+            }
+            long eytzinger = System.nanoTime() - begin;
+            Assert.assertEquals(binaryHits, eytzingerHits);
+            System.out.printf("int %d, %d lookups: binary search %d ms, eytzinger %d ms%n",
+                    n, queries, binary / 1_000_000, eytzinger / 1_000_000);
+
+            // 对象版本，1亿个Integer太大，只比较小的规模
+            if (n > 1_000_000) {
+                continue;
+            }
+
+            SortArray<Integer> sorted = new SortArray<>(n, ResizePolicy.DEFAULT);
+            for (int key : keys) {
+                sorted.add(key);
+            }
+            FrozenSortArray<Integer> frozen = sorted.freeze();
+
+            begin = System.nanoTime();
+            binaryHits = 0;
+            for (int probe : probes) {
+                binaryHits += sorted.contains(probe) ? 1 : 0;
+            }
+            binary = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            eytzingerHits = 0;
+            for (int probe : probes) {
+                eytzingerHits += frozen.contains(probe) ? 1 : 0;
+            }
+            eytzinger = System.nanoTime() - begin;
+            Assert.assertEquals(binaryHits, eytzingerHits);
+            System.out.printf("Integer %d, %d lookups: binary search %d ms, eytzinger %d ms%n",
+                    n, queries, binary / 1_000_000, eytzinger / 1_000_000);
+        }
+    }
+
+    /**
+     * 测试带缓冲区的有序数组：结果与SortArray一致，并比较随机插入的速度
+     */
+    @Test
+    public void test18() {
+        Random random = new Random(18);
+        SortArray<Version> expected = new SortArray<>();
+        BufferedSortArray<Version> buffered = new BufferedSortArray<>(8);
+        for (int i = 0; i < 2_000; i++) {
+            int op = random.nextInt(10);
+            if (op < 7 || expected.size() == 0) {
+                Version version = new Version(random.nextInt(50), "v" + i);
+                expected.add(version);
+                buffered.add(version);
+            } else if (op < 9) {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.delete(index), buffered.delete(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.get(index), buffered.get(index));
+                Version probe = new Version(random.nextInt(52) - 1, "probe");
+                Assert.assertEquals(expected.rank(probe), buffered.rank(probe));
+                Assert.assertEquals(expected.floor(probe), buffered.floor(probe));
+                Assert.assertEquals(expected.ceiling(probe), buffered.ceiling(probe));
+                Assert.assertEquals(expected.contains(expected.get(index)), buffered.contains(expected.get(index)));
+            }
+
+            Assert.assertEquals(expected.size(), buffered.size());
+        }
+        Assert.assertEquals(expected.toList(), buffered.toList());
+        buffered.flush();
+        Assert.assertEquals(expected.toList(), buffered.toList());
+
+        // 性能：随机插入20万个元素
+        int n = 200_000;
+        int[] values = random.ints(n).toArray();
+        SortArray<Integer> plain = new SortArray<>();
+        long begin = System.nanoTime();
+        for (int value : values) {
+            plain.add(value);
+        }
+        long plainTime = System.nanoTime() - begin;
+
+        BufferedSortArray<Integer> fast = new BufferedSortArray<>();
+        begin = System.nanoTime();
+        for (int value : values) {
+            fast.add(value);
+        }
+        long bufferedTime = System.nanoTime() - begin;
+        System.out.printf("random insert %d: SortArray %d ms, BufferedSortArray %d ms, merges %d%n",
+                n, plainTime / 1_000_000, bufferedTime / 1_000_000, fast.getMergeCount());
+        Assert.assertEquals(plain.toList(), fast.toList());
+    }
+
+    /**
+     * 测试多路归并迭代器：合并多个分片的SortArray以及AVLTree、RBTree的中序遍历
+     */
+    @Test
+    public void test19() {
+        SortArray<Version> shard0 = SortArray.fromUnsorted(Arrays.asList(new Version(1, "a0"), new Version(3, "b0")));
+        SortArray<Version> shard1 = new SortArray<>();
+        SortArray<Version> shard2 = SortArray.fromUnsorted(Arrays.asList(new Version(3, "b2"), new Version(1, "a2"),
+                new Version(0, "c2"), new Version(3, "d2")));
+        List<String> tags = new ArrayList<>();
+        MergeIterator.of(Arrays.asList(shard0, shard1, shard2), false).forEachRemaining(v -> tags.add(v.tag));
+        System.out.println(tags);
+        // 相等时先输出前面分片中的元素，同一分片中保持原来的顺序
+        Assert.assertEquals(Arrays.asList("c2", "a0", "a2", "b0", "b2", "d2"), tags);
+
+        tags.clear();
+        MergeIterator.of(Arrays.asList(shard0, shard1, shard2), true).forEachRemaining(v -> tags.add(v.tag));
+        Assert.assertEquals(Arrays.asList("c2", "a0", "b0"), tags);
+        Assert.assertFalse(new MergeIterator<Integer>(new ArrayList<>(), false).hasNext());
+
+        Random random = new Random(19);
+        List<SortArray<Integer>> shards = new ArrayList<>();
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            List<Integer> values = new ArrayList<>();
+            for (int j = random.nextInt(200); j > 0; j--) {
+                values.add(random.nextInt(1000));
+            }
+
+            all.addAll(values);
+            shards.add(SortArray.fromUnsorted(values));
+        }
+        List<Integer> merged = new ArrayList<>();
+        MergeIterator.of(shards, false).forEachRemaining(merged::add);
+        Assert.assertEquals(all.stream().sorted().collect(Collectors.toList()), merged);
+        merged.clear();
+        MergeIterator.of(shards, true).forEachRemaining(merged::add);
+        Assert.assertEquals(new ArrayList<>(new TreeSet<>(all)), merged);
+
+        // 树的中序遍历也是有序的，可以直接参与归并
+        AVLTree<Integer> avl = new AVLTree<>();
+        RBTree<Integer> rb = new RBTree<>();
+        for (int i = 0; i < 50; i++) {
+            avl.insert(2 * i);
+            rb.add(3 * i);
+        }
+        Assert.assertEquals(avl.inorderTraversal(), StreamSupport.stream(avl.spliterator(), false).collect(Collectors.toList()));
+        Assert.assertEquals(rb.inorderTraversal(), StreamSupport.stream(rb.spliterator(), false).collect(Collectors.toList()));
+        merged.clear();
+        MergeIterator.of(Arrays.asList(avl, rb, shards.get(0)), true).forEachRemaining(merged::add);
+        TreeSet<Integer> expected = new TreeSet<>(avl.inorderTraversal());
+        expected.addAll(rb.inorderTraversal());
+        expected.addAll(shards.get(0).toList());
+        Assert.assertEquals(new ArrayList<>(expected), merged);
+    }
+
+    /**
+     * 测试按游程保存的有序数组：结果与SortArray一致，内存只与不同值的个数有关
+     */
+    @Test
+    public void test20() {
+        Random random = new Random(20);
+        SortArray<Integer> expected = new SortArray<>();
+        CountedSortArray<Integer> counted = new CountedSortArray<>();
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(30);
+            if (random.nextInt(4) > 0) {
+                expected.add(value);
+                counted.add(value);
+            } else {
+                int index = expected.indexOf(value);
+                if (index > -1) {
+                    expected.delete(index);
+                }
+                Assert.assertEquals(index > -1, counted.remove(value));
+            }
+
+            Assert.assertEquals(expected.size(), counted.size());
+            Assert.assertEquals(expected.upperBound(value) - expected.lowerBound(value), counted.count(value));
+        }
+        List<Integer> expanded = new ArrayList<>();
+        counted.forEach(expanded::add);
+        Assert.assertEquals(expected.toList(), expanded);
+
+        int removed = counted.removeAll(7);
+        Assert.assertEquals(0, counted.count(7));
+        Assert.assertFalse(counted.contains(7));
+        Assert.assertEquals(expected.size() - removed, counted.size());
+
+        CountedSortArray<String> words = new CountedSortArray<>();
+        words.add("b", 3);
+        words.add("a");
+        System.out.println(words);
+        Assert.assertEquals("[a=1,b=3]", words.toString());
+        Assert.assertEquals("[]", new CountedSortArray<String>().toString());
+
+        // 性能：200万个元素，只有1000个不同的值
+        CountedSortArray<Integer> heavy = new CountedSortArray<>();
+        long begin = System.nanoTime();
+        for (int i = 0; i < 2_000_000; i++) {
+            heavy.add(random.nextInt(1000));
+        }
+        long countedTime = System.nanoTime() - begin;
+
+        SortArray<Integer> plain = new SortArray<>();
+        begin = System.nanoTime();
+        for (int i = 0; i < 200_000; i++) {
+            plain.add(random.nextInt(1000));
+        }
+        long plainTime = System.nanoTime() - begin;
+        System.out.printf("2000000 adds (1000 distinct): counted %d ms, capacity %d; 200000 adds: SortArray %d ms, capacity %d%n",
+                countedTime / 1_000_000, heavy.capacity(), plainTime / 1_000_000, plain.capacity());
+        Assert.assertEquals(2_000_000, heavy.size());
+        Assert.assertEquals(1000, heavy.distinctSize());
+        Assert.assertTrue(heavy.capacity() < 2000);
+    }
+
+    /**
+     * 测试并行归并排序：正确性、稳定性，并与Arrays.sort、Arrays.parallelSort比较速度
+     */
+    @Test
+    public void test21() {
+        Random random = new Random(3);
+        // 稳定性：按行号排序，相同行号的元素保持输入顺序
+        Array<int[]> rows = new Array<>(10);
+        for (int i = 0; i < 50_000; i++) {
+            rows.addLast(new int[]{random.nextInt(100), i});
+        }
+        rows.sort(Comparator.comparingInt(row -> row[0]));
+        for (int i = 1; i < rows.size(); i++) {
+            int[] previous = rows.get(i - 1);
+            int[] current = rows.get(i);
+            Assert.assertTrue(previous[0] < current[0] || (previous[0] == current[0] && previous[1] < current[1]));
+        }
+
+        Array<Integer> numbers = new Array<>(10);
+        for (int i = 0; i < 20_000; i++) {
+            numbers.addLast(random.nextInt(1000));
+        }
+        SortArray<Integer> sortArray = numbers.toSortArray();
+        numbers.sort();
+        Assert.assertEquals(numbers.size(), sortArray.size());
+        for (int i = 0; i < numbers.size(); i++) {
+            Assert.assertEquals(numbers.get(i), sortArray.get(i));
+        }
+        sortArray.add(500);
+        Assert.assertEquals(numbers.size() + 1, sortArray.size());
+        Assert.assertEquals(0, new Array<Integer>(1).toSortArray().size());
+
+        int n = 1_000_000;
+        Integer[] source = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            source[i] = random.nextInt();
+        }
+        Integer[] expected = source.clone();
+        long begin = System.nanoTime();
+        Arrays.sort(expected);
+        long sequential = System.nanoTime() - begin;
+
+        Integer[] parallel = source.clone();
+        begin = System.nanoTime();
+        Arrays.parallelSort(parallel);
+        long jdkParallel = System.nanoTime() - begin;
+
+        Integer[] merged = source.clone();
+        begin = System.nanoTime();
+        ParallelMergeSort.sort(merged);
+        long mergeSort = System.nanoTime() - begin;
+        Assert.assertArrayEquals(expected, merged);
+        System.out.printf("sort %d Integer on %d cpu: Arrays.sort %d ms, Arrays.parallelSort %d ms, ParallelMergeSort %d ms%n",
+                n, Runtime.getRuntime().availableProcessors(), sequential / 1_000_000, jdkParallel / 1_000_000,
+                mergeSort / 1_000_000);
+    }
+
+    /**
+     * 测试基数排序：正确性，并与Arrays.sort、Arrays.parallelSort比较速度
+     */
+    @Test
+    public void test22() {
+        Random random = new Random(4);
+        for (int n = 0; n < 300; n += 7) {
+            int[] ints = random.ints(n, -1000, 1000).toArray();
+            long[] longs = random.longs(n).toArray();
+            int[] expectedInts = ints.clone();
+            long[] expectedLongs = longs.clone();
+            // 只排序后面的一段
+            Arrays.sort(expectedInts, n / 3, n);
+            Arrays.sort(expectedLongs);
+            RadixSort.sort(ints, n / 3, n);
+            RadixSort.sort(longs);
+            Assert.assertArrayEquals(expectedInts, ints);
+            Assert.assertArrayEquals(expectedLongs, longs);
+        }
+
+        IntArray intArray = new IntArray();
+        LongArray longArray = new LongArray();
+        for (int i = 0; i < 1000; i++) {
+            intArray.addLast(random.nextInt());
+            longArray.addLast(random.nextLong());
+        }
+        intArray.sort();
+        longArray.sort();
+        for (int i = 1; i < 1000; i++) {
+            Assert.assertTrue(intArray.get(i - 1) <= intArray.get(i));
+            Assert.assertTrue(longArray.get(i - 1) <= longArray.get(i));
+        }
+
+        int n = 5_000_000;
+        benchmarkIntSort(random.ints(n).toArray());
+        benchmarkLongSort(random.longs(n).toArray());
+    }
+
+    /**
+     * int数组：基数排序与Arrays.sort、Arrays.parallelSort比较速度
+     */
+    private static void benchmarkIntSort(int[] source) {
+        int[] expected = source.clone();
+        int[] parallel = source.clone();
+        int[] actual = source.clone();
+        long begin = System.nanoTime();
+        Arrays.sort(expected);
+        long sequential = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        Arrays.parallelSort(parallel);
+        long jdkParallel = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        RadixSort.sort(actual);
+        long radix = System.nanoTime() - begin;
+        Assert.assertArrayEquals(expected, actual);
+        System.out.printf("sort %d int: Arrays.sort %d ms, Arrays.parallelSort %d ms, RadixSort %d ms%n",
+                source.length, sequential / 1_000_000, jdkParallel / 1_000_000, radix / 1_000_000);
+    }
+
+    /**
+     * long数组：基数排序与Arrays.sort、Arrays.parallelSort比较速度
+     */
+    private static void benchmarkLongSort(long[] source) {
+        long[] expected = source.clone();
+        long[] parallel = source.clone();
+        long[] actual = source.clone();
+        long begin = System.nanoTime();
+        Arrays.sort(expected);
+        long sequential = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        Arrays.parallelSort(parallel);
+        long jdkParallel = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        RadixSort.sort(actual);
+        long radix = System.nanoTime() - begin;
+        Assert.assertArrayEquals(expected, actual);
+        System.out.printf("sort %d long: Arrays.sort %d ms, Arrays.parallelSort %d ms, RadixSort %d ms%n",
+                source.length, sequential / 1_000_000, jdkParallel / 1_000_000, radix / 1_000_000);
+    }
+
+    /**
+     * 只按版本号比较的元素，用于测试相等元素的顺序
+     */
+    private static class Version implements Comparable<Version> {
+        final int number;
+        final String tag;
+
+        Version(int number, String tag) {
+            this.number = number;
+            this.tag = tag;
+        }
+
+        @Override
+        public int compareTo(Version o) {
+            return Integer.compare(number, o.number);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Version && ((Version) o).number == number && ((Version) o).tag.equals(tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return number * 31 + tag.hashCode();
+        }
+    }
+
+    /**
+     * 多个线程同时追加，返回耗时(微秒)
+     */
+    private static long runProducers(int threads, int perThread, Consumer<Integer> append) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < perThread; i++) {
+                    append.accept(base + i);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        return (System.nanoTime() - begin) / 1000;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
 }
@@ -0,0 +1,247 @@
+package person.companion.array;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：写优化的有序数组，内部分为一个大的主有序段和一个小的有序缓冲区(类似LSM的思路)
+ * 1.添加元素时只插入到缓冲区中，每次只需要移动缓冲区中的元素，代价与缓冲区大小有关，与总元素个数无关
+ * 2.缓冲区达到阈值之后通过SortArray.addAll一次性归并到主有序段，O(n + m)，
+ * 相当于把n次O(n)的移动合并成了一次，每个元素分摊到的移动次数为 n / threshold
+ * 3.读操作同时查询两段，get(k)通过二分查找确定第k个元素在哪一段，迭代器边遍历边归并两段
+ * 4.元素顺序与SortArray完全一致：相等的元素按插入顺序排列，主有序段中的元素总是先于缓冲区中与它相等的元素
+ *
+ * author: companion
+ * Write by: 2026/10/18 19:40
+ */
+public class BufferedSortArray<E> implements Iterable<E> {
+    // 缓冲区的容量固定为阈值，不需要缩容
+    private static final ResizePolicy BUFFER_POLICY = ResizePolicy.neverShrink(2.0, 1);
+
+    // 缓冲区的最大元素个数
+    private final int threshold;
+    // 主有序段
+    private final SortArray<E> main;
+    // 缓冲区
+    private SortArray<E> buffer;
+    // 归并次数，用于观察阈值是否合适
+    private int mergeCount;
+
+    public BufferedSortArray() {
+        // 默认缓冲区大小为1024
+        this(1024);
+    }
+
+    /**
+     * @param threshold 缓冲区达到多少个元素时归并到主有序段
+     */
+    public BufferedSortArray(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+
+        this.threshold = threshold;
+        this.main = new SortArray<>(10, ResizePolicy.DEFAULT);
+        this.buffer = new SortArray<>(threshold, BUFFER_POLICY);
+    }
+
+    /**
+     * 遍历时归并两段的迭代器
+     */
+    private class BufferedIterator implements Iterator<E> {
+        int i = 0;
+        int j = 0;
+
+        @Override
+        public boolean hasNext() {
+            return i < main.size() || j < buffer.size();
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            // 相等时先取主有序段中的元素
+            if (j == buffer.size() || (i < main.size() && NaturalOrder.compare(main.get(i), buffer.get(j)) <= 0)) {
+                return main.get(i++);
+            }
+
+            return buffer.get(j++);
+        }
+    }
+
+    /**
+     * 添加元素，插入到缓冲区中，缓冲区满了之后归并到主有序段
+     *
+     * @param element 元素
+     */
+    public void add(E element) {
+        buffer.add(element);
+        if (buffer.size() >= threshold) {
+            flush();
+        }
+    }
+
+    /**
+     * 立即将缓冲区归并到主有序段，之后的读操作只需要查询主有序段
+     */
+    public void flush() {
+        if (buffer.size() == 0) {
+            return;
+        }
+
+        main.addAll(buffer.toList());
+        buffer = new SortArray<>(threshold, BUFFER_POLICY);
+        mergeCount++;
+    }
+
+    // 删除元素
+    public E delete(int index) {
+        int position = locate(index);
+        return position >= 0 ? main.delete(position) : buffer.delete(-position - 1);
+    }
+
+    public E deleteLast() {
+        return delete(size() - 1);
+    }
+
+    // 查找元素
+    public E get(int index) {
+        int position = locate(index);
+        return position >= 0 ? main.get(position) : buffer.get(-position - 1);
+    }
+
+    public E getLast() {
+        return get(size() - 1);
+    }
+
+    /**
+     * 确定合并后第index个元素在哪一段
+     * 缓冲区中第j个元素在合并后的位置为 j + main中小于等于它的元素个数，这个位置随j单调递增，
+     * 因此可以二分查找第一个位置大于等于index的缓冲区元素，O(log b * log n)
+     *
+     * @return 在主有序段中时返回它的索引，在缓冲区中时返回 -(缓冲区索引 + 1)
+     */
+    private int locate(int index) {
+        if (index < 0 || size() - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        int low = 0;
+        int high = buffer.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mid + main.upperBound(buffer.get(mid)) < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        // 缓冲区中排在它前面的有low个元素
+        if (low < buffer.size() && low + main.upperBound(buffer.get(low)) == index) {
+            return -low - 1;
+        }
+
+        return index - low;
+    }
+
+    public boolean contains(E e) {
+        return main.contains(e) || buffer.contains(e);
+    }
+
+    /**
+     * 元素的排名，即小于e的元素个数
+     *
+     * @param e 元素
+     * @return 排名，从0开始
+     */
+    public int rank(E e) {
+        return main.rank(e) + buffer.rank(e);
+    }
+
+    /**
+     * 小于等于e的最大元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E floor(E e) {
+        E a = main.floor(e);
+        E b = buffer.floor(e);
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+
+        // 相等时缓冲区中的元素排在后面
+        return NaturalOrder.compare(a, b) > 0 ? a : b;
+    }
+
+    /**
+     * 大于等于e的最小元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E ceiling(E e) {
+        E a = main.ceiling(e);
+        E b = buffer.ceiling(e);
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+
+        // 相等时主有序段中的元素排在前面
+        return NaturalOrder.compare(a, b) <= 0 ? a : b;
+    }
+
+    public int size() {
+        return main.size() + buffer.size();
+    }
+
+    /**
+     * 获取归并次数
+     *
+     * @return 归并次数
+     */
+    public int getMergeCount() {
+        return mergeCount;
+    }
+
+    /**
+     * 将数据以ArrayList的形式返回
+     *
+     * @return 数据集合
+     */
+    public List<E> toList() {
+        List<E> list = new ArrayList<>(size());
+        for (E e : this) {
+            list.add(e);
+        }
+
+        return list;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new BufferedIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(",");
+            }
+        }
+
+        return builder.append("]").toString();
+    }
+}
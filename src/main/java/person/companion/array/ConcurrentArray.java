@@ -0,0 +1,318 @@
+package person.companion.array;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 功能描述：写时复制(copy-on-write)的线程安全数组，适合读多写少的场景
+ * 1.底层数组一旦发布就不再修改，读操作只读取一次volatile引用，然后在这个不可变的快照上进行，不需要加锁
+ * 2.写操作加锁，复制一份新数组修改之后再整体替换引用，读线程要么看到旧版本，要么看到新版本
+ * 3.迭代器遍历的是创建时的快照，遍历期间的修改不会影响迭代器，也不会抛出ConcurrentModificationException
+ * 4.批量修改只发布一次：addAll和removeIf直接分配最终长度的数组，只复制一次，
+ * batch按预估的最终长度分配工作数组，预估准确时也只复制一次
+ *
+ * author: companion
+ * Write by: 2026/10/18 15:30
+ */
+public class ConcurrentArray<E> implements Sequence<E> {
+    private static final Object[] EMPTY = new Object[0];
+
+    // 写操作使用的锁，读操作不需要加锁
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 当前发布的快照，长度就是元素个数
+    private volatile Object[] data;
+
+    public ConcurrentArray() {
+        data = EMPTY;
+    }
+
+    public ConcurrentArray(Collection<? extends E> elements) {
+        data = elements.toArray(new Object[0]);
+    }
+
+    /**
+     * 快照迭代器
+     */
+    private static class SnapshotIterator<E> implements Iterator<E> {
+        private final Object[] snapshot;
+        private int index = 0;
+
+        SnapshotIterator(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < snapshot.length;
+        }
+
+        @Override
+        public E next() {
+            if (index >= snapshot.length) {
+                throw new NoSuchElementException();
+            }
+
+            return (E) snapshot[index++];
+        }
+    }
+
+    /**
+     * 在指定位置添加元素，复制一份新的数组，插入位置前后两段各整块复制一次
+     *
+     * @param index   添加的索引值
+     * @param element 元素
+     */
+    @Override
+    public void add(int index, E element) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            if (index < 0 || index > current.length) {
+                throw new RuntimeException("index out of bound");
+            }
+
+            Object[] newData = new Object[current.length + 1];
+            System.arraycopy(current, 0, newData, 0, index);
+            System.arraycopy(current, index, newData, index + 1, current.length - index);
+            newData[index] = element;
+            data = newData;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 添加元素到最后一位
+    @Override
+    public void addLast(E element) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            Object[] newData = Arrays.copyOf(current, current.length + 1);
+            newData[current.length] = element;
+            data = newData;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 修改元素
+    @Override
+    public void replace(int index, E e) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            checkIndex(index, current);
+            Object[] newData = current.clone();
+            newData[index] = e;
+            data = newData;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 删除元素
+    @Override
+    public E delete(int index) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            checkIndex(index, current);
+            E oldValue = (E) current[index];
+            Object[] newData = new Object[current.length - 1];
+            System.arraycopy(current, 0, newData, 0, index);
+            System.arraycopy(current, index + 1, newData, index, current.length - index - 1);
+            data = newData;
+            return oldValue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E deleteLast() {
+        lock.lock();
+        try {
+            return delete(data.length - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量添加，直接分配最终长度的新数组，快照只复制一次、发布一次
+     *
+     * @param elements 需要添加的元素
+     */
+    public void addAll(Collection<? extends E> elements) {
+        Object[] added = elements.toArray();
+        if (added.length == 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            Object[] current = data;
+            Object[] newData = Arrays.copyOf(current, current.length + added.length);
+            System.arraycopy(added, 0, newData, current.length, added.length);
+            data = newData;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量删除满足条件的元素，先判断所有元素，再把保留的元素复制到最终长度的新数组中，只复制一次、发布一次
+     * filter抛出异常时不会发布任何修改
+     *
+     * @param filter 删除条件
+     * @return 是否删除了元素
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            BitSet removed = new BitSet(current.length);
+            for (int i = 0; i < current.length; i++) {
+                if (filter.test((E) current[i])) {
+                    removed.set(i);
+                }
+            }
+
+            int removeCount = removed.cardinality();
+            if (removeCount == 0) {
+                return false;
+            }
+
+            Object[] newData = new Object[current.length - removeCount];
+            int j = 0;
+            for (int i = removed.nextClearBit(0); i < current.length; i = removed.nextClearBit(i + 1)) {
+                newData[j++] = current[i];
+            }
+
+            data = newData;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量修改：将当前快照复制到一个Array中交给mutation修改，修改完成之后只发布一次
+     * 修改之后的长度不同于当前长度时，最后还要再复制一次，修改后的长度可以预估时使用batch(int, Consumer)
+     *
+     * @param mutation 修改操作，只能在当前线程中使用传入的Array
+     */
+    public void batch(Consumer<? super Array<E>> mutation) {
+        batch(data.length, mutation);
+    }
+
+    /**
+     * 批量修改：按预估的最终长度分配工作数组，把当前快照复制进去交给mutation修改，修改完成之后只发布一次
+     * 1.工作数组不会缩容，预估准确时整个批次只复制一次快照，修改之后的数组直接发布
+     * 2.预估不准确时，工作数组会扩容，或者最后按实际长度再复制一次
+     * mutation中抛出异常时不会发布任何修改，读线程也不会看到修改了一半的数组
+     *
+     * @param expectedSize 预估的修改之后的元素个数
+     * @param mutation     修改操作，只能在当前线程中使用传入的Array
+     */
+    public void batch(int expectedSize, Consumer<? super Array<E>> mutation) {
+        lock.lock();
+        try {
+            Object[] current = data;
+            Object[] working = Arrays.copyOf(current, Math.max(expectedSize, current.length));
+            Array<E> array = new Array<>(working, current.length, ResizePolicy.neverShrink(2.0, 1));
+            mutation.accept(array);
+            array.trimToSize();
+            data = array.data;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 查找元素
+    @Override
+    public E get(int index) {
+        Object[] snapshot = data;
+        checkIndex(index, snapshot);
+        return (E) snapshot[index];
+    }
+
+    @Override
+    public E getLast() {
+        Object[] snapshot = data;
+        checkIndex(snapshot.length - 1, snapshot);
+        return (E) snapshot[snapshot.length - 1];
+    }
+
+    @Override
+    public int indexOf(E e) {
+        Object[] snapshot = data;
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i].equals(e)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) > -1;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * 获取当前版本的只读视图，需要多次读取并且要求结果一致时使用
+     *
+     * @return 不可修改的List，之后的写操作不会影响它
+     */
+    public List<E> snapshot() {
+        return Collections.unmodifiableList(Arrays.asList((E[]) data));
+    }
+
+    /**
+     * 获取快照迭代器，遍历的是调用时的版本
+     *
+     * @return 迭代器
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator<>(data);
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        Object[] snapshot = data;
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < snapshot.length; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(snapshot[i]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    private static void checkIndex(int index, Object[] snapshot) {
+        if (index < 0 || snapshot.length - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+    }
+}
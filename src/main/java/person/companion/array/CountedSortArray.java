@@ -0,0 +1,270 @@
+package person.companion.array;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：按游程(值, 个数)保存的有序可重复数组，适合大量重复元素的场景
+ * 1.每个不同的值只占一个位置，values与counts是两个平行的数组，values按自然顺序排列，
+ * 内存与不同值的个数有关，与元素总数无关
+ * 2.添加已经存在的值只需要二分查找之后把个数加一，O(log d)，d为不同值的个数；
+ * 添加新的值或者某个值的个数减到0时才需要移动后面的元素，O(d)
+ * 3.迭代时按个数把每个值重复输出，不会真的展开成一个大数组
+ * 注意：compareTo相等的元素视为同一个值，只保留第一次添加的那个元素
+ *
+ * author: companion
+ * Write by: 2026/10/18 21:40
+ */
+public class CountedSortArray<E> implements Iterable<E> {
+    // 不同值的个数
+    private int distinct;
+    // 元素总数
+    private int size;
+    // 数组长度
+    private int capacity;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数，用于观察是否频繁扩缩容
+    private int resizeCount;
+
+    private E[] values;
+    private int[] counts;
+
+    public CountedSortArray() {
+        // 默认初始化元素为10个
+        this(10, ResizePolicy.DEFAULT);
+    }
+
+    public CountedSortArray(int capacity, ResizePolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+        values = (E[]) new Object[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * 按游程展开的迭代器，每个值按个数重复输出
+     */
+    private class CountedIterator implements Iterator<E> {
+        int index = 0;
+        // 当前值还需要输出的次数
+        int remaining = distinct > 0 ? counts[0] : 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < distinct;
+        }
+
+        @Override
+        public E next() {
+            if (index >= distinct) {
+                throw new NoSuchElementException();
+            }
+
+            E e = values[index];
+            if (--remaining == 0 && ++index < distinct) {
+                remaining = counts[index];
+            }
+
+            return e;
+        }
+    }
+
+    public void add(E element) {
+        add(element, 1);
+    }
+
+    /**
+     * 添加n个相同的元素
+     *
+     * @param element 元素
+     * @param n       个数
+     */
+    public void add(E element, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+
+        int newSize = Math.addExact(size, n);
+        int index = lowerBound(element);
+        if (index < distinct && NaturalOrder.compare(values[index], element) == 0) {
+            counts[index] += n;
+        } else {
+            if (distinct == capacity) {
+                resize(policy.grow(capacity, distinct + 1));
+            }
+
+            // 新的值，后面的游程整块后移一位
+            System.arraycopy(values, index, values, index + 1, distinct - index);
+            System.arraycopy(counts, index, counts, index + 1, distinct - index);
+            values[index] = element;
+            counts[index] = n;
+            distinct++;
+        }
+
+        size = newSize;
+    }
+
+    /**
+     * 删除一个与e相等的元素
+     *
+     * @param e 元素
+     * @return 是否删除了元素
+     */
+    public boolean remove(E e) {
+        int index = find(e);
+        if (index < 0) {
+            return false;
+        }
+
+        size--;
+        if (--counts[index] == 0) {
+            deleteRun(index);
+        }
+
+        return true;
+    }
+
+    /**
+     * 删除所有与e相等的元素
+     *
+     * @param e 元素
+     * @return 删除的个数
+     */
+    public int removeAll(E e) {
+        int index = find(e);
+        if (index < 0) {
+            return 0;
+        }
+
+        int removed = counts[index];
+        size -= removed;
+        deleteRun(index);
+        return removed;
+    }
+
+    /**
+     * 删除第index个游程，后面的游程整块前移一位
+     */
+    private void deleteRun(int index) {
+        System.arraycopy(values, index + 1, values, index, distinct - index - 1);
+        System.arraycopy(counts, index + 1, counts, index, distinct - index - 1);
+        values[--distinct] = null;
+        // 按缩容策略减小数组长度，缩容阈值与扩容标准不同是为了防止频繁扩容与缩容
+        int newCapacity = policy.shrink(capacity, distinct);
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * 与e相等的元素个数
+     *
+     * @param e 元素
+     * @return 个数
+     */
+    public int count(E e) {
+        int index = find(e);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    public boolean contains(E e) {
+        return find(e) > -1;
+    }
+
+    /**
+     * 元素总数
+     *
+     * @return 元素总数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 不同值的个数
+     *
+     * @return 不同值的个数
+     */
+    public int distinctSize() {
+        return distinct;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new CountedIterator();
+    }
+
+    /**
+     * 按 值=个数 的形式打印，不展开重复的元素
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < distinct; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(values[i]).append("=").append(counts[i]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * 数组扩容或缩容，两个平行数组一起调整
+     */
+    private void resize(int newCapacity) {
+        E[] newValues = (E[]) new Object[newCapacity];
+        int[] newCounts = new int[newCapacity];
+        System.arraycopy(values, 0, newValues, 0, distinct);
+        System.arraycopy(counts, 0, newCounts, 0, distinct);
+
+        values = newValues;
+        counts = newCounts;
+        capacity = newCapacity;
+        resizeCount++;
+    }
+
+    /**
+     * 查找与e相等的游程
+     *
+     * @return 游程的索引，不存在时返回-1
+     */
+    private int find(E e) {
+        int index = lowerBound(e);
+        return index < distinct && NaturalOrder.compare(values[index], e) == 0 ? index : -1;
+    }
+
+    /**
+     * 二分查找第一个大于等于e的游程
+     */
+    private int lowerBound(E e) {
+        int low = 0;
+        int high = distinct;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (NaturalOrder.compare(values[mid], e) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,58 @@
+package person.companion.array;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * 功能描述：立即释放DirectByteBuffer占用的堆外内存
+ * JDK没有提供公开的释放方法，默认要等ByteBuffer对象被垃圾回收之后才会释放，
+ * 这里通过反射调用：JDK9及以上使用Unsafe.invokeCleaner，JDK8使用DirectBuffer.cleaner().clean()
+ * 两种方式都不可用时只能等待垃圾回收
+ *
+ * author: companion
+ * Write by: 2026/10/18 17:25
+ */
+final class DirectBuffers {
+    private DirectBuffers() {
+    }
+
+    /**
+     * 释放堆外内存，释放之后不能再访问该buffer
+     *
+     * @param buffer 需要释放的buffer
+     * @return 是否立即释放成功
+     */
+    static boolean free(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return false;
+        }
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return true;
+        } catch (Exception ignored) {
+            // JDK8没有invokeCleaner，使用下面的方式
+        }
+
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner == null) {
+                return false;
+            }
+
+            Method clean = cleaner.getClass().getMethod("clean");
+            clean.setAccessible(true);
+            clean.invoke(cleaner);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package person.companion.array;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 功能描述：double类型的Array，接口与Array保持一致
+ * 底层直接使用double[]存储，不需要每个元素都装箱成Double
+ * 以64位JVM开启指针压缩为例，Array<Double>每个元素需要4字节引用 + 24字节Double对象，
+ * 而这里每个元素只需要8字节，并且get/indexOf时不需要再通过引用去访问对象
+ *
+ * author: companion
+ * Write by: 2026/10/18 10:30
+ */
+public class DoubleArray {
+    // 数组实际元素个数
+    private int size;
+    // 数组长度
+    private int capacity;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数，用于观察是否频繁扩缩容
+    private int resizeCount;
+
+    double[] data;
+
+    public DoubleArray() {
+        // 默认初始化元素为10个
+        this(10);
+    }
+
+    public DoubleArray(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    public DoubleArray(int capacity, ResizePolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+        data = new double[this.capacity];
+    }
+
+    /**
+     * 定义一个迭代器，nextDouble直接返回double，不会装箱
+     */
+    private class DoubleArrayIterator implements PrimitiveIterator.OfDouble {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+
+            return data[index++];
+        }
+    }
+
+    /**
+     * 在指定位置添加元素方法
+     * 这里需要将插入的元素索引之后的全部元素向后移动一次，使用System.arraycopy整块移动
+     *
+     * @param index   添加的索引值
+     * @param element 元素
+     */
+    public void add(int index, double element) {
+        if (index < 0 || index > size) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        // 判断数组是否已满
+        if (size == capacity) {
+            ensureCapacity(size + 1);
+        }
+
+        // 将插入元素之后的元素整体后挪一位
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        size++;
+        data[index] = element;
+    }
+
+    // 添加元素到最后一位
+    public void addLast(double element) {
+        add(size, element);
+    }
+
+    // 修改元素
+    public void replace(int index, double e) {
+        if (size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        data[index] = e;
+    }
+
+    /**
+     * 保证数组至少能存放minCapacity个元素，按扩容策略计算新的容量
+     *
+     * @param minCapacity 需要的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            resize(policy.grow(capacity, minCapacity));
+        }
+    }
+
+    /**
+     * 将数组容量缩小为实际元素个数
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 数组扩容或缩容
+     */
+    private void resize(int newCapacity) {
+        double[] newData = new double[newCapacity];
+        // 将数据整块存入新的数组
+        System.arraycopy(data, 0, newData, 0, size);
+
+        data = newData;
+        capacity = newCapacity;
+        resizeCount++;
+    }
+
+    // 删除元素
+    public double delete(int index) {
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        double oldValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+
+        size--;
+        // 按缩容策略减小数组长度，缩容阈值与扩容标准不同是为了防止频繁扩容与缩容
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+
+        return oldValue;
+    }
+
+    // 查找元素
+    public double get(int index) {
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        return data[index];
+    }
+
+    /**
+     * 查找元素，这里与Array<Double>的equals语义保持一致：NaN等于NaN，0.0不等于-0.0
+     *
+     * @param e 需要查找的元素
+     * @return 元素索引，不存在时返回-1
+     */
+    public int indexOf(double e) {
+        long bits = Double.doubleToLongBits(e);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(data[i]) == bits) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean contains(double e) {
+        return indexOf(e) > -1;
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(data[i]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    public double deleteLast() {
+        return delete(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    public double getLast() {
+        return get(size - 1);
+    }
+
+    public PrimitiveIterator.OfDouble iterator() {
+        return new DoubleArrayIterator();
+    }
+}
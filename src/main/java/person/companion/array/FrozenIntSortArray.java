@@ -0,0 +1,157 @@
+package person.companion.array;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 功能描述：FrozenSortArray的int版本，元素直接保存在int[]中，按Eytzinger(广度优先)顺序存放
+ * 比较时不需要通过引用读取Integer对象，每次探测只访问一次数组，适合几百万到上亿个整数键的查找表
+ *
+ * author: companion
+ * Write by: 2026/10/18 19:10
+ */
+public class FrozenIntSortArray implements Iterable<Integer> {
+    // 位置0不使用，元素存放在[1, size]中
+    private final int[] tree;
+    private final int size;
+
+    private FrozenIntSortArray(int[] sorted) {
+        this.size = sorted.length;
+        this.tree = new int[size + 1];
+        build(sorted, 0, 1);
+    }
+
+    /**
+     * 使用一批无序的整数创建快照，不会修改传入的数组
+     *
+     * @param values 整数
+     * @return 快照
+     */
+    public static FrozenIntSortArray of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new FrozenIntSortArray(sorted);
+    }
+
+    /**
+     * 使用已经升序排列的整数创建快照，不会修改传入的数组
+     *
+     * @param sorted 升序排列的整数
+     * @return 快照
+     */
+    public static FrozenIntSortArray ofSorted(int[] sorted) {
+        return new FrozenIntSortArray(sorted);
+    }
+
+    /**
+     * 中序遍历这棵隐式的树，依次填入有序数组中的元素
+     */
+    private int build(int[] sorted, int i, int k) {
+        if (k <= size) {
+            i = build(sorted, i, 2 * k);
+            tree[k] = sorted[i++];
+            i = build(sorted, i, 2 * k + 1);
+        }
+
+        return i;
+    }
+
+    /**
+     * 中序遍历的迭代器，按从小到大的顺序遍历
+     */
+    private class FrozenIntIterator implements PrimitiveIterator.OfInt {
+        int k = leftmost(1);
+
+        @Override
+        public boolean hasNext() {
+            return k != 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (k == 0) {
+                throw new NoSuchElementException();
+            }
+
+            int value = tree[k];
+            k = successor(k);
+            return value;
+        }
+    }
+
+    /**
+     * 二分查找第一个大于等于value的元素，返回它在树中的位置
+     *
+     * @return 位置，所有元素都小于value时返回0
+     */
+    private int search(int value) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (tree[k] < value ? 1 : 0);
+        }
+
+        return FrozenSortArray.ancestor(k);
+    }
+
+    /**
+     * 大于等于value的最小元素
+     *
+     * @param value 需要查找的值
+     * @param absent 不存在时返回的值
+     * @return 元素
+     */
+    public int ceiling(int value, int absent) {
+        int k = search(value);
+        return k == 0 ? absent : tree[k];
+    }
+
+    public boolean contains(int value) {
+        int k = search(value);
+        return k != 0 && tree[k] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new FrozenIntIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int k = leftmost(1); k != 0; k = successor(k)) {
+            if (builder.length() > 1) {
+                builder.append(",");
+            }
+
+            builder.append(tree[k]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    private int successor(int k) {
+        if (2 * k + 1 <= size) {
+            return leftmost(2 * k + 1);
+        }
+
+        return FrozenSortArray.ancestor(k);
+    }
+
+    private int leftmost(int k) {
+        if (k > size) {
+            return 0;
+        }
+
+        while (2 * k <= size) {
+            k = 2 * k;
+        }
+
+        return k;
+    }
+}
@@ -0,0 +1,185 @@
+package person.companion.array;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：只读的有序数组快照，元素按Eytzinger(广度优先)顺序存放，适合构建一次、查询很多次的查找表
+ * 1.把有序数组看成一棵完全二叉搜索树，按层存放：根在位置1，位置k的左右孩子在2k和2k+1，
+ * 二分查找前几层访问的元素都挤在数组开头，会一直留在缓存中，而普通二分查找的前几次访问分散在整个数组上
+ * 2.查找时每一层只根据比较结果计算下一个位置 k = 2k + (tree[k] < e)，循环中没有难以预测的分支，
+ * 循环次数固定为树的高度
+ * 3.循环结束时k走出了树，k的二进制去掉末尾连续的1以及再前面一个0之后，就是第一个大于等于e的元素的位置
+ * 4.快照创建之后不能修改，原来的SortArray之后的修改也不会影响快照
+ * 注意：这里保存的是对象引用，比较时还要读取引用指向的对象，元素很多时这次读取本身就会缺失缓存，
+ * 布局带来的收益会被抵消，大的整数查找表应该使用FrozenIntSortArray
+ *
+ * author: companion
+ * Write by: 2026/10/18 19:10
+ */
+public class FrozenSortArray<E> implements Iterable<E> {
+    // 位置0不使用，元素存放在[1, size]中
+    private final Object[] tree;
+    private final int size;
+
+    /**
+     * @param sorted 有序数组，只读取前size个元素
+     * @param size   元素个数
+     */
+    FrozenSortArray(Object[] sorted, int size) {
+        this.size = size;
+        this.tree = new Object[size + 1];
+        build(sorted, 0, 1);
+    }
+
+    /**
+     * 中序遍历这棵隐式的树，依次填入有序数组中的元素
+     *
+     * @return 下一个需要填入的元素在有序数组中的索引
+     */
+    private int build(Object[] sorted, int i, int k) {
+        if (k <= size) {
+            i = build(sorted, i, 2 * k);
+            tree[k] = sorted[i++];
+            i = build(sorted, i, 2 * k + 1);
+        }
+
+        return i;
+    }
+
+    /**
+     * 中序遍历的迭代器，按从小到大的顺序遍历
+     */
+    private class FrozenIterator implements Iterator<E> {
+        int k = leftmost(1);
+
+        @Override
+        public boolean hasNext() {
+            return k != 0;
+        }
+
+        @Override
+        public E next() {
+            if (k == 0) {
+                throw new NoSuchElementException();
+            }
+
+            E e = (E) tree[k];
+            k = successor(k);
+            return e;
+        }
+    }
+
+    /**
+     * 大于等于e的最小元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E ceiling(E e) {
+        return (E) tree[ceilingIndex(e)];
+    }
+
+    /**
+     * 大于等于e的最小元素在树中的位置
+     *
+     * @return 位置，不存在时返回0
+     */
+    private int ceilingIndex(E e) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (NaturalOrder.compare(tree[k], e) < 0 ? 1 : 0);
+        }
+
+        return ancestor(k);
+    }
+
+    /**
+     * 大于e的最小元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E higher(E e) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (NaturalOrder.compare(tree[k], e) <= 0 ? 1 : 0);
+        }
+
+        return (E) tree[ancestor(k)];
+    }
+
+    /**
+     * 与SortArray.contains一致：比较相等的元素可能有多个，需要按中序依次检查这一段中是否有equals的元素
+     *
+     * @param e 需要查找的元素
+     * @return 是否存在
+     */
+    public boolean contains(E e) {
+        for (int k = ceilingIndex(e); k != 0 && NaturalOrder.compare(tree[k], e) == 0; k = successor(k)) {
+            if (tree[k].equals(e)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new FrozenIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int k = leftmost(1); k != 0; k = successor(k)) {
+            if (builder.length() > 1) {
+                builder.append(",");
+            }
+
+            builder.append(tree[k]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * 中序遍历中k的下一个位置：有右子树时是右子树的最左节点，否则沿着右孩子往上走，
+     * 第一个作为左孩子的节点的父节点就是下一个位置，走到根之上时返回0
+     */
+    private int successor(int k) {
+        if (2 * k + 1 <= size) {
+            return leftmost(2 * k + 1);
+        }
+
+        return ancestor(k);
+    }
+
+    /**
+     * 以k为根的子树中最左边的节点，k超出范围时返回0
+     */
+    private int leftmost(int k) {
+        if (k > size) {
+            return 0;
+        }
+
+        while (2 * k <= size) {
+            k = 2 * k;
+        }
+
+        return k;
+    }
+
+    /**
+     * 去掉k末尾连续的1以及再前面一个0，即最后一次往左走之前所在的节点，不存在时为0
+     */
+    static int ancestor(int k) {
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+}
@@ -0,0 +1,268 @@
+package person.companion.array;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：间隙缓冲区(gap buffer)数组，适合在同一个位置附近连续增删元素的场景，例如文本编辑
+ * 数组中间保留一段空闲的间隙[gapStart, gapEnd)，间隙的位置就是当前的编辑位置
+ * 1.在间隙处增删元素只需要修改gapStart/gapEnd，是O(1)的
+ * 2.编辑位置变化时才需要移动间隙，移动的元素个数为新旧编辑位置之间的距离，而不是Array那样整个尾部
+ * 3.读取时索引在间隙之后的元素需要跳过间隙，get与迭代器的结果与Array一致
+ *
+ * author: companion
+ * Write by: 2026/10/18 14:50
+ */
+public class GapArray<E> implements Sequence<E> {
+    // 间隙起始位置(包含)，也就是当前编辑位置
+    private int gapStart;
+    // 间隙结束位置(不包含)
+    private int gapEnd;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数
+    private int resizeCount;
+
+    private Object[] data;
+
+    public GapArray() {
+        // 默认初始化元素为10个
+        this(10);
+    }
+
+    public GapArray(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    public GapArray(int capacity, ResizePolicy policy) {
+        this.policy = policy;
+        data = new Object[capacity];
+        gapEnd = capacity;
+    }
+
+    /**
+     * 定义一个迭代器
+     */
+    private class GapArrayIterator implements Iterator<E> {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size();
+        }
+
+        @Override
+        public E next() {
+            if (index >= size()) {
+                throw new NoSuchElementException();
+            }
+
+            return element(index++);
+        }
+    }
+
+    /**
+     * 在指定位置添加元素，先把间隙移动到index，然后放入间隙的第一个位置
+     *
+     * @param index   添加的索引值
+     * @param element 元素
+     */
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size()) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        // 间隙用完了，扩容并且把新的间隙放在index处
+        if (gapStart == gapEnd) {
+            resize(policy.grow(data.length, data.length + 1));
+        }
+
+        moveGap(index);
+        data[gapStart++] = element;
+    }
+
+    // 添加元素到最后一位
+    @Override
+    public void addLast(E element) {
+        add(size(), element);
+    }
+
+    // 修改元素
+    @Override
+    public void replace(int index, E e) {
+        checkIndex(index);
+        data[position(index)] = e;
+    }
+
+    /**
+     * 删除元素，先把间隙移动到index，然后把间隙之后的第一个元素并入间隙
+     *
+     * @param index 删除的索引值
+     * @return 删除的元素
+     */
+    @Override
+    public E delete(int index) {
+        checkIndex(index);
+        moveGap(index);
+        E oldValue = (E) data[gapEnd];
+        data[gapEnd++] = null;
+
+        int newCapacity = policy.shrink(data.length, size());
+        if (newCapacity != data.length) {
+            resize(newCapacity);
+        }
+
+        return oldValue;
+    }
+
+    @Override
+    public E deleteLast() {
+        return delete(size() - 1);
+    }
+
+    // 查找元素
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        return element(index);
+    }
+
+    @Override
+    public E getLast() {
+        return get(size() - 1);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        for (int i = 0; i < gapStart; i++) {
+            if (data[i].equals(e)) {
+                return i;
+            }
+        }
+
+        for (int i = gapEnd; i < data.length; i++) {
+            if (data[i].equals(e)) {
+                return i - (gapEnd - gapStart);
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) > -1;
+    }
+
+    @Override
+    public int size() {
+        return data.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * 当前编辑位置，在这个位置附近增删元素不需要移动间隙
+     *
+     * @return 编辑位置
+     */
+    public int cursor() {
+        return gapStart;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new GapArrayIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(element(i));
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * 将间隙移动到index处，只移动新旧位置之间的元素
+     *
+     * @param index 新的间隙起始位置
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            // 间隙左移：[index, gapStart)的元素整块挪到间隙的尾部
+            int length = gapStart - index;
+            System.arraycopy(data, index, data, gapEnd - length, length);
+            // 把挪走之后没有被覆盖的位置置空，方便垃圾回收
+            clear(index, Math.min(gapStart, gapEnd - length));
+            gapStart = index;
+            gapEnd -= length;
+        } else if (index > gapStart) {
+            // 间隙右移：间隙之后的length个元素整块挪到间隙的头部
+            int length = index - gapStart;
+            System.arraycopy(data, gapEnd, data, gapStart, length);
+            clear(Math.max(gapEnd, index), gapEnd + length);
+            gapStart = index;
+            gapEnd += length;
+        }
+    }
+
+    /**
+     * 扩容或缩容，间隙保持在原来的位置，长度变为新容量减去元素个数
+     *
+     * @param newCapacity 新的容量
+     */
+    private void resize(int newCapacity) {
+        Object[] newData = new Object[newCapacity];
+        int tail = data.length - gapEnd;
+        System.arraycopy(data, 0, newData, 0, gapStart);
+        System.arraycopy(data, gapEnd, newData, newCapacity - tail, tail);
+
+        data = newData;
+        gapEnd = newCapacity - tail;
+        resizeCount++;
+    }
+
+    private void clear(int from, int to) {
+        for (int i = from; i < to; i++) {
+            data[i] = null;
+        }
+    }
+
+    private E element(int index) {
+        return (E) data[position(index)];
+    }
+
+    /**
+     * 逻辑索引转换为数组中的位置，间隙之后的元素需要跳过间隙
+     */
+    private int position(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || size() - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+    }
+}
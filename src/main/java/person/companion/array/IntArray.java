@@ -0,0 +1,226 @@
+package person.companion.array;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 功能描述：int类型的Array，接口与Array保持一致
+ * 底层直接使用int[]存储，不需要每个元素都装箱成Integer
+ * 以64位JVM开启指针压缩为例，Array<Integer>每个元素需要4字节引用 + 16字节Integer对象，
+ * 而这里每个元素只需要4字节，并且get/indexOf时不需要再通过引用去访问对象
+ *
+ * author: companion
+ * Write by: 2026/10/18 10:30
+ */
+public class IntArray {
+    // 数组实际元素个数
+    private int size;
+    // 数组长度
+    private int capacity;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数，用于观察是否频繁扩缩容
+    private int resizeCount;
+
+    int[] data;
+
+    public IntArray() {
+        // 默认初始化元素为10个
+        this(10);
+    }
+
+    public IntArray(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    public IntArray(int capacity, ResizePolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+        data = new int[this.capacity];
+    }
+
+    /**
+     * 定义一个迭代器，nextInt直接返回int，不会装箱
+     */
+    private class IntArrayIterator implements PrimitiveIterator.OfInt {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+
+            return data[index++];
+        }
+    }
+
+    /**
+     * 在指定位置添加元素方法
+     * 这里需要将插入的元素索引之后的全部元素向后移动一次，使用System.arraycopy整块移动
+     *
+     * @param index   添加的索引值
+     * @param element 元素
+     */
+    public void add(int index, int element) {
+        if (index < 0 || index > size) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        // 判断数组是否已满
+        if (size == capacity) {
+            ensureCapacity(size + 1);
+        }
+
+        // 将插入元素之后的元素整体后挪一位
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        size++;
+        data[index] = element;
+    }
+
+    // 添加元素到最后一位
+    public void addLast(int element) {
+        add(size, element);
+    }
+
+    // 修改元素
+    public void replace(int index, int e) {
+        if (size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        data[index] = e;
+    }
+
+    /**
+     * 保证数组至少能存放minCapacity个元素，按扩容策略计算新的容量
+     *
+     * @param minCapacity 需要的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            resize(policy.grow(capacity, minCapacity));
+        }
+    }
+
+    /**
+     * 将数组容量缩小为实际元素个数
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 数组扩容或缩容
+     */
+    private void resize(int newCapacity) {
+        int[] newData = new int[newCapacity];
+        // 将数据整块存入新的数组
+        System.arraycopy(data, 0, newData, 0, size);
+
+        data = newData;
+        capacity = newCapacity;
+        resizeCount++;
+    }
+
+    // 删除元素
+    public int delete(int index) {
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        int oldValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+
+        size--;
+        // 按缩容策略减小数组长度，缩容阈值与扩容标准不同是为了防止频繁扩容与缩容
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+
+        return oldValue;
+    }
+
+    // 查找元素
+    public int get(int index) {
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        return data[index];
+    }
+
+    public int indexOf(int e) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == e) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean contains(int e) {
+        return indexOf(e) > -1;
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(data[i]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * 原地升序排序，使用LSD基数排序，不需要比较元素
+     */
+    public void sort() {
+        RadixSort.sort(data, 0, size);
+    }
+
+    public int deleteLast() {
+        return delete(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    public int getLast() {
+        return get(size - 1);
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new IntArrayIterator();
+    }
+}
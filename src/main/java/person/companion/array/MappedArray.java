@@ -0,0 +1,167 @@
+package person.companion.array;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 功能描述：基于内存映射文件的持久化定长记录数组
+ * 1.数据直接保存在映射的文件中，读写由操作系统的页缓存完成，数据量可以超过堆的大小
+ * 2.文件开头是固定长度的文件头，保存魔数、记录长度、每块记录数以及记录个数，
+ * 重新打开时只需要读取文件头并重新映射，不需要解析数据，几个G的文件也只需要几毫秒
+ * 3.文件按块(extent)映射，扩容时映射下一个块，文件随之变大，已经映射的块不需要重新映射
+ * 4.记录个数在每次增删时写入文件头，调用force()之后才保证写入磁盘
+ *
+ * author: companion
+ * Write by: 2026/10/18 18:30
+ */
+public class MappedArray<E> extends AbstractRecordArray<E> {
+    private static final int MAGIC = 0x4D415252;
+    private static final int VERSION = 1;
+    // 文件头长度，预留一些空间方便以后扩展
+    private static final int HEADER_SIZE = 64;
+    // 默认每块映射64M
+    private static final int DEFAULT_EXTENT_BYTES = 64 * 1024 * 1024;
+
+    // 文件头各字段的位置
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int CHUNK_SHIFT_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+
+    private MappedArray(FileChannel channel, MappedByteBuffer header, RecordCodec<E> codec, int chunkCapacity) {
+        super(codec, chunkCapacity);
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * 打开文件，文件不存在或为空时创建新的数组，每块映射大约64M
+     *
+     * @param file  文件路径
+     * @param codec 记录的编解码器
+     * @return 数组
+     * @throws IOException 打开文件失败或者文件格式不正确
+     */
+    public static <E> MappedArray<E> open(Path file, RecordCodec<E> codec) throws IOException {
+        int chunkCapacity = Integer.highestOneBit(Math.max(1, DEFAULT_EXTENT_BYTES / codec.recordSize()));
+        return open(file, codec, chunkCapacity);
+    }
+
+    /**
+     * 打开文件，文件不存在或为空时创建新的数组
+     *
+     * @param file          文件路径
+     * @param codec         记录的编解码器
+     * @param chunkCapacity 每块的记录数，只在创建新文件时使用，已有文件使用文件头中保存的值
+     * @return 数组
+     * @throws IOException 打开文件失败或者文件格式不正确
+     */
+    public static <E> MappedArray<E> open(Path file, RecordCodec<E> codec, int chunkCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                MappedArray<E> array = new MappedArray<>(channel, header, codec, chunkCapacity);
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(RECORD_SIZE_OFFSET, codec.recordSize());
+                header.putInt(CHUNK_SHIFT_OFFSET, array.chunkShift);
+                header.putLong(SIZE_OFFSET, 0);
+                return array;
+            }
+
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("not a mapped array file: " + file);
+            }
+
+            if (header.getInt(RECORD_SIZE_OFFSET) != codec.recordSize()) {
+                throw new IOException("record size mismatch, file: " + header.getInt(RECORD_SIZE_OFFSET)
+                        + ", codec: " + codec.recordSize());
+            }
+
+            MappedArray<E> array = new MappedArray<>(channel, header, codec,
+                    1 << header.getInt(CHUNK_SHIFT_OFFSET));
+            array.restore((int) header.getLong(SIZE_OFFSET));
+            return array;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 映射文件中第chunkIndex个块，文件长度不够时会自动变长
+     */
+    @Override
+    ByteBuffer newChunk(int chunkIndex) {
+        long extentBytes = (long) recordSize << chunkShift;
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + chunkIndex * extentBytes, extentBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 解除映射，文件中的数据不会被删除
+     */
+    @Override
+    void freeChunk(ByteBuffer chunk) {
+        ((MappedByteBuffer) chunk).force();
+        DirectBuffers.free(chunk);
+    }
+
+    /**
+     * 将记录个数写入文件头
+     */
+    @Override
+    void sizeChanged() {
+        header.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * 将修改写入磁盘
+     */
+    public void force() {
+        checkOpen();
+        for (int i = 0; i < chunkCount; i++) {
+            ((MappedByteBuffer) chunk(i)).force();
+        }
+
+        header.force();
+    }
+
+    /**
+     * 写入磁盘并关闭文件，数据保留在文件中，下次可以重新打开
+     */
+    @Override
+    public void close() {
+        if (isClosed()) {
+            return;
+        }
+
+        // 解除映射之前会将每个块写入磁盘
+        super.close();
+        header.force();
+        DirectBuffers.free(header);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
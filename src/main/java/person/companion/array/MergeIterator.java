@@ -0,0 +1,152 @@
+package person.companion.array;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：多路归并迭代器，把N个各自有序的迭代器合并成一个整体有序的迭代器
+ * 1.使用大小为N的小顶堆保存每一路当前的第一个元素，每次取出堆顶之后从同一路补充下一个元素，
+ * 每个元素O(log N)，额外内存只有O(N)，不需要把所有数据拼接之后重新排序
+ * 2.相等的元素按来源的顺序输出：前面的来源先输出，同一来源中保持原来的顺序
+ * 3.去重模式下，与上一个输出元素比较相等的元素都会被跳过
+ * 4.来源可以是SortArray、AVLTree、RBTree或者任意有序的Iterable/Iterator，都是惰性读取的
+ * 5.默认按自然顺序比较，也可以传入Comparator，此时每一路都必须按这个Comparator有序
+ *
+ * author: companion
+ * Write by: 2026/10/18 20:10
+ */
+public class MergeIterator<E> implements Iterator<E> {
+    // 每一路的迭代器
+    private final List<Iterator<? extends E>> sources;
+    // 每一路当前的第一个元素
+    private final Object[] heads;
+    // 小顶堆，保存还没有读完的来源的下标
+    private final int[] heap;
+    private int heapSize;
+    // 是否去重
+    private final boolean distinct;
+    private final Comparator<? super E> comparator;
+
+    /**
+     * @param sources  各自按自然顺序有序的迭代器
+     * @param distinct 是否去掉相等的元素
+     */
+    public MergeIterator(List<? extends Iterator<? extends E>> sources, boolean distinct) {
+        this(sources, NaturalOrder::compare, distinct);
+    }
+
+    /**
+     * @param sources    各自按comparator有序的迭代器
+     * @param comparator 比较器
+     * @param distinct   是否去掉相等的元素
+     */
+    public MergeIterator(List<? extends Iterator<? extends E>> sources, Comparator<? super E> comparator,
+                         boolean distinct) {
+        this.comparator = comparator;
+        this.sources = new ArrayList<>(sources);
+        this.heads = new Object[sources.size()];
+        this.heap = new int[sources.size()];
+        this.distinct = distinct;
+        for (int i = 0; i < heads.length; i++) {
+            Iterator<? extends E> source = this.sources.get(i);
+            if (source.hasNext()) {
+                heads[i] = source.next();
+                heap[heapSize++] = i;
+            }
+        }
+
+        // 自底向上建堆，O(N)
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * 归并多个有序的Iterable，例如SortArray、AVLTree、RBTree
+     *
+     * @param sources  各自有序的集合
+     * @param distinct 是否去掉相等的元素
+     * @return 归并迭代器
+     */
+    public static <E> MergeIterator<E> of(List<? extends Iterable<? extends E>> sources, boolean distinct) {
+        List<Iterator<? extends E>> iterators = new ArrayList<>(sources.size());
+        for (Iterable<? extends E> source : sources) {
+            iterators.add(source.iterator());
+        }
+
+        return new MergeIterator<>(iterators, distinct);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return heapSize > 0;
+    }
+
+    @Override
+    public E next() {
+        if (heapSize == 0) {
+            throw new NoSuchElementException();
+        }
+
+        E e = (E) heads[heap[0]];
+        advance();
+        if (distinct) {
+            // 相等的元素会依次出现在堆顶
+            while (heapSize > 0 && compare(heads[heap[0]], e) == 0) {
+                advance();
+            }
+        }
+
+        return e;
+    }
+
+    /**
+     * 堆顶的来源读取下一个元素，读完之后从堆中移除
+     */
+    private void advance() {
+        int source = heap[0];
+        Iterator<? extends E> iterator = sources.get(source);
+        if (iterator.hasNext()) {
+            heads[source] = iterator.next();
+        } else {
+            heads[source] = null;
+            heap[0] = heap[--heapSize];
+        }
+
+        siftDown(0);
+    }
+
+    private void siftDown(int i) {
+        int source = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+
+            if (!less(heap[child], source)) {
+                break;
+            }
+
+            heap[i] = heap[child];
+            i = child;
+        }
+
+        heap[i] = source;
+    }
+
+    /**
+     * 来源a当前的元素是否应该排在来源b之前，元素相等时下标小的来源在前
+     */
+    private boolean less(int a, int b) {
+        int result = compare(heads[a], heads[b]);
+        return result < 0 || (result == 0 && a < b);
+    }
+
+    private int compare(Object a, Object b) {
+        return comparator.compare((E) a, (E) b);
+    }
+}
@@ -0,0 +1,19 @@
+package person.companion.array;
+
+/**
+ * 功能描述：按自然顺序比较元素，有序数组们共用，元素必须实现Comparable
+ *
+ * author: companion
+ * Write by: 2026/10/18 19:10
+ */
+final class NaturalOrder {
+    private NaturalOrder() {
+    }
+
+    /**
+     * 按自然顺序比较两个元素
+     */
+    static <E> int compare(Object a, E b) {
+        return ((Comparable<? super E>) a).compareTo(b);
+    }
+}
@@ -0,0 +1,52 @@
+package person.companion.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 功能描述：堆外定长记录数组，用法与Array类似，但是记录保存在DirectByteBuffer中
+ * 1.每条记录按照RecordCodec定义的布局编码成固定长度的字节，不需要为每条记录创建对象，也没有对象头，
+ * 堆上只有少量的ByteBuffer对象，几亿条记录也不会增加垃圾回收的负担
+ * 2.数据分块存放，每块保存2的幂条记录，扩容时只申请新的块，不复制已有数据，也不受单个ByteBuffer 2G的限制
+ * 3.getInt/getLong/getDouble可以直接读取记录中的某个字段，不需要解码出整条记录
+ * 4.使用完之后需要调用close()立即释放堆外内存
+ *
+ * author: companion
+ * Write by: 2026/10/18 17:30
+ */
+public class OffHeapRecordArray<E> extends AbstractRecordArray<E> {
+    public OffHeapRecordArray(RecordCodec<E> codec) {
+        // 默认每块65536条记录
+        this(codec, 1 << 16);
+    }
+
+    /**
+     * @param codec         记录的编解码器
+     * @param chunkCapacity 每块的记录数，不是2的幂时向上取整为2的幂
+     */
+    public OffHeapRecordArray(RecordCodec<E> codec, int chunkCapacity) {
+        super(codec, chunkCapacity);
+    }
+
+    /**
+     * 当前占用的堆外内存字节数
+     *
+     * @return 字节数
+     */
+    public long offHeapBytes() {
+        return (long) chunkCount * ((long) recordSize << chunkShift);
+    }
+
+    @Override
+    ByteBuffer newChunk(int chunkIndex) {
+        return ByteBuffer.allocateDirect(recordSize << chunkShift).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 立即释放堆外内存
+     */
+    @Override
+    void freeChunk(ByteBuffer chunk) {
+        DirectBuffers.free(chunk);
+    }
+}
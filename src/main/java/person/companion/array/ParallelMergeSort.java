@@ -0,0 +1,126 @@
+package person.companion.array;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 功能描述：基于Fork/Join的并行归并排序，稳定排序，相等的元素保持原来的顺序
+ * 1.区间大于THRESHOLD时拆成两半，左半部分交给其他线程，当前线程排序右半部分，两半都排好之后再归并
+ * 2.区间不大于THRESHOLD时直接用Arrays.sort排序(对象数组上是稳定的TimSort)，避免拆得太细
+ * 3.两半已经有序(左半的最大值不大于右半的最小值)时跳过归并，有序或基本有序的输入会快很多
+ * 4.归并使用一个与区间等长的辅助数组，每层都在原数组与辅助数组之间复制一次
+ *
+ * author: companion
+ * Write by: 2026/10/18 21:10
+ */
+public class ParallelMergeSort {
+    // 小于这个长度的区间不再拆分
+    private static final int THRESHOLD = 1 << 13;
+
+    private ParallelMergeSort() {
+    }
+
+    /**
+     * 按自然顺序排序整个数组
+     *
+     * @param a 数组，元素必须实现Comparable
+     */
+    public static void sort(Object[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    /**
+     * 对[from, to)区间排序，使用公共的ForkJoinPool
+     *
+     * @param a          数组
+     * @param from       起始索引(包含)
+     * @param to         结束索引(不包含)
+     * @param comparator 比较器，为null时按自然顺序
+     */
+    public static <E> void sort(Object[] a, int from, int to, Comparator<? super E> comparator) {
+        if (from < 0 || to > a.length || from > to) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        Comparator<Object> c = comparator == null
+                ? (x, y) -> ((Comparable<Object>) x).compareTo(y)
+                : (Comparator<Object>) comparator;
+        if (to - from <= THRESHOLD) {
+            Arrays.sort(a, from, to, c);
+            return;
+        }
+
+        ForkJoinPool.commonPool().invoke(new SortTask(a, new Object[to - from], from, to, from, c));
+    }
+
+    /**
+     * 排序a的[from, to)区间，buffer[from - base, to - base)作为辅助空间
+     */
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a;
+        private final Object[] buffer;
+        private final int from;
+        private final int to;
+        // buffer[0]对应a[base]
+        private final int base;
+        private final Comparator<Object> comparator;
+
+        SortTask(Object[] a, Object[] buffer, int from, int to, int base, Comparator<Object> comparator) {
+            this.a = a;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.base = base;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                Arrays.sort(a, from, to, comparator);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            SortTask left = new SortTask(a, buffer, from, mid, base, comparator);
+            left.fork();
+            new SortTask(a, buffer, mid, to, base, comparator).compute();
+            left.join();
+
+            // 已经整体有序，不需要归并
+            if (comparator.compare(a[mid - 1], a[mid]) <= 0) {
+                return;
+            }
+
+            merge(mid);
+        }
+
+        /**
+         * 归并[from, mid)与[mid, to)，先把左半部分复制到辅助数组，再从前往后写回原数组
+         */
+        private void merge(int mid) {
+            int offset = from - base;
+            System.arraycopy(a, from, buffer, offset, mid - from);
+            int i = offset;
+            int leftEnd = offset + mid - from;
+            int j = mid;
+            int k = from;
+            while (i < leftEnd && j < to) {
+                // 相等时先取左半部分的元素，保证稳定
+                if (comparator.compare(a[j], buffer[i]) < 0) {
+                    a[k++] = a[j++];
+                } else {
+                    a[k++] = buffer[i++];
+                }
+            }
+
+            // 右半部分剩下的元素已经在正确的位置上
+            System.arraycopy(buffer, i, a, k, leftEnd - i);
+            Arrays.fill(buffer, offset, leftEnd, null);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package person.companion.array;
+
+/**
+ * 功能描述：int与long数组的LSD(最低位优先)基数排序
+ * 1.每次按8位(一个字节)分桶，int需要4趟，long需要8趟，每趟先统计每个桶的元素个数，
+ * 再按前缀和把元素分配到辅助数组中，分配时从前往后，因此每一趟都是稳定的
+ * 2.不需要比较元素，时间复杂度为O(趟数 * (n + 256))，元素很多时比基于比较的排序快
+ * 3.最高字节的符号位取反之后再分桶，负数就排在了正数前面
+ * 4.所有元素某个字节都相同时(例如数值范围很小时的高位字节)，这一趟不需要分配，直接跳过
+ *
+ * author: companion
+ * Write by: 2026/10/18 21:10
+ */
+public class RadixSort {
+    // 每趟处理的位数
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    private RadixSort() {
+    }
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * 对[from, to)区间排序
+     *
+     * @param a    数组
+     * @param from 起始索引(包含)
+     * @param to   结束索引(不包含)
+     */
+    public static void sort(int[] a, int from, int to) {
+        if (from < 0 || to > a.length || from > to) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+
+        // 一次遍历统计所有趟的桶计数
+        int[][] counts = new int[Integer.BYTES][BUCKETS];
+        for (int i = from; i < to; i++) {
+            int key = a[i] ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                counts[pass][(key >>> (pass * BITS)) & MASK]++;
+            }
+        }
+
+        // source与target在a与辅助数组之间轮换
+        int[] source = a;
+        int sourceFrom = from;
+        int[] target = new int[n];
+        int targetFrom = 0;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int[] count = counts[pass];
+            int shift = pass * BITS;
+            if (skip(count, n, (a[from] ^ Integer.MIN_VALUE) >>> shift & MASK)) {
+                continue;
+            }
+
+            int[] offsets = prefixSum(count);
+            for (int i = sourceFrom; i < sourceFrom + n; i++) {
+                int value = source[i];
+                target[targetFrom + offsets[((value ^ Integer.MIN_VALUE) >>> shift) & MASK]++] = value;
+            }
+
+            int[] swap = source;
+            source = target;
+            target = swap;
+            int swapFrom = sourceFrom;
+            sourceFrom = targetFrom;
+            targetFrom = swapFrom;
+        }
+
+        // 最后一趟写到了辅助数组中，复制回原数组
+        if (source != a) {
+            System.arraycopy(source, sourceFrom, a, from, n);
+        }
+    }
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * 对[from, to)区间排序
+     *
+     * @param a    数组
+     * @param from 起始索引(包含)
+     * @param to   结束索引(不包含)
+     */
+    public static void sort(long[] a, int from, int to) {
+        if (from < 0 || to > a.length || from > to) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+
+        int[][] counts = new int[Long.BYTES][BUCKETS];
+        for (int i = from; i < to; i++) {
+            long key = a[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass][(int) (key >>> (pass * BITS)) & MASK]++;
+            }
+        }
+
+        long[] source = a;
+        int sourceFrom = from;
+        long[] target = new long[n];
+        int targetFrom = 0;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int[] count = counts[pass];
+            int shift = pass * BITS;
+            if (skip(count, n, (int) ((a[from] ^ Long.MIN_VALUE) >>> shift) & MASK)) {
+                continue;
+            }
+
+            int[] offsets = prefixSum(count);
+            for (int i = sourceFrom; i < sourceFrom + n; i++) {
+                long value = source[i];
+                target[targetFrom + offsets[(int) ((value ^ Long.MIN_VALUE) >>> shift) & MASK]++] = value;
+            }
+
+            long[] swap = source;
+            source = target;
+            target = swap;
+            int swapFrom = sourceFrom;
+            sourceFrom = targetFrom;
+            targetFrom = swapFrom;
+        }
+
+        if (source != a) {
+            System.arraycopy(source, sourceFrom, a, from, n);
+        }
+    }
+
+    /**
+     * 所有元素都落在同一个桶中时这一趟可以跳过
+     */
+    private static boolean skip(int[] count, int n, int firstBucket) {
+        return count[firstBucket] == n;
+    }
+
+    /**
+     * 计算每个桶在结果中的起始位置
+     */
+    private static int[] prefixSum(int[] count) {
+        int[] offsets = new int[BUCKETS];
+        int sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            offsets[i] = sum;
+            sum += count[i];
+        }
+
+        return offsets;
+    }
+}
@@ -0,0 +1,113 @@
+package person.companion.array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 功能描述：定长记录的编解码器，定义一条记录在ByteBuffer中的布局
+ * 每条记录占用固定的recordSize个字节，offset为记录在ByteBuffer中的起始位置
+ *
+ * author: companion
+ * Write by: 2026/10/18 17:20
+ */
+public interface RecordCodec<E> {
+    // 每条记录占用的字节数
+    int recordSize();
+
+    // 将记录写入buffer的offset处，只能使用绝对位置的读写方法，不能修改buffer的position
+    void write(ByteBuffer buffer, int offset, E e);
+
+    // 从buffer的offset处读取一条记录
+    E read(ByteBuffer buffer, int offset);
+
+    /**
+     * 由fields个int组成的记录，例如五子棋稀疏数组中的一行(行号, 列号, 值)就是3个int
+     *
+     * @param fields int的个数
+     * @return 编解码器
+     */
+    static RecordCodec<int[]> ofInts(int fields) {
+        return new RecordCodec<int[]>() {
+            @Override
+            public int recordSize() {
+                return fields * Integer.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, int[] e) {
+                for (int i = 0; i < fields; i++) {
+                    buffer.putInt(offset + i * Integer.BYTES, e[i]);
+                }
+            }
+
+            @Override
+            public int[] read(ByteBuffer buffer, int offset) {
+                int[] e = new int[fields];
+                for (int i = 0; i < fields; i++) {
+                    e[i] = buffer.getInt(offset + i * Integer.BYTES);
+                }
+
+                return e;
+            }
+        };
+    }
+
+    // 单个int的记录
+    static RecordCodec<Integer> ofInt() {
+        return new RecordCodec<Integer>() {
+            @Override
+            public int recordSize() {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Integer e) {
+                buffer.putInt(offset, e);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+    }
+
+    // 单个long的记录
+    static RecordCodec<Long> ofLong() {
+        return new RecordCodec<Long>() {
+            @Override
+            public int recordSize() {
+                return Long.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Long e) {
+                buffer.putLong(offset, e);
+            }
+
+            @Override
+            public Long read(ByteBuffer buffer, int offset) {
+                return buffer.getLong(offset);
+            }
+        };
+    }
+
+    // 单个double的记录
+    static RecordCodec<Double> ofDouble() {
+        return new RecordCodec<Double>() {
+            @Override
+            public int recordSize() {
+                return Double.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Double e) {
+                buffer.putDouble(offset, e);
+            }
+
+            @Override
+            public Double read(ByteBuffer buffer, int offset) {
+                return buffer.getDouble(offset);
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package person.companion.array;
+
+/**
+ * 功能描述：数组扩容与缩容策略
+ * 扩容：容量不够时按growthFactor倍扩容，并且不小于minCapacity
+ * 缩容：元素个数小于 容量 * shrinkThreshold 时按growthFactor倍缩小，但不会小于minCapacity
+ * 要求 shrinkThreshold * growthFactor < 1，这样缩容之后数组不会是满的，
+ * 在扩容和缩容的临界点附近来回增删时，需要增删足够多的元素才会再次扩容或缩容，避免每次操作都重新分配数组
+ *
+ * author: companion
+ * Write by: 2026/10/18 11:20
+ */
+public class ResizePolicy {
+    // 部分JVM会在数组中保留一些头信息，数组长度不能超过这个值
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * 默认策略：两倍扩容，少于四分之一时缩容一半，最小容量为10
+     */
+    public static final ResizePolicy DEFAULT = new ResizePolicy(2.0, 0.25, 10, true);
+
+    // 扩容倍数
+    private final double growthFactor;
+    // 缩容阈值，元素个数 / 容量 小于该值时缩容
+    private final double shrinkThreshold;
+    // 缩容时不会小于该容量
+    private final int minCapacity;
+    // 是否允许缩容
+    private final boolean shrinkable;
+
+    public ResizePolicy(double growthFactor, double shrinkThreshold, int minCapacity, boolean shrinkable) {
+        if (growthFactor <= 1) {
+            throw new IllegalArgumentException("growthFactor must be greater than 1");
+        }
+
+        if (shrinkThreshold < 0 || shrinkThreshold * growthFactor >= 1) {
+            throw new IllegalArgumentException("shrinkThreshold * growthFactor must be less than 1");
+        }
+
+        if (minCapacity < 1) {
+            throw new IllegalArgumentException("minCapacity must be positive");
+        }
+
+        this.growthFactor = growthFactor;
+        this.shrinkThreshold = shrinkThreshold;
+        this.minCapacity = minCapacity;
+        this.shrinkable = shrinkable;
+    }
+
+    /**
+     * 只扩容不缩容的策略，适合容量会反复回到峰值的场景
+     *
+     * @param growthFactor 扩容倍数
+     * @param minCapacity  最小容量
+     * @return 扩容策略
+     */
+    public static ResizePolicy neverShrink(double growthFactor, int minCapacity) {
+        return new ResizePolicy(growthFactor, 0, minCapacity, false);
+    }
+
+    /**
+     * 计算扩容之后的容量
+     *
+     * @param capacity 当前容量
+     * @param required 至少需要的容量
+     * @return 新的容量
+     */
+    public int grow(int capacity, int required) {
+        if (required < 0 || required > MAX_CAPACITY) {
+            throw new OutOfMemoryError("required capacity too large: " + required);
+        }
+
+        long newCapacity = Math.max((long) (capacity * growthFactor), capacity + 1L);
+        newCapacity = Math.min(newCapacity, MAX_CAPACITY);
+        return (int) Math.max(newCapacity, Math.max(required, minCapacity));
+    }
+
+    /**
+     * 计算缩容之后的容量，不需要缩容时返回原容量
+     * 批量删除之后可能需要缩容多次，这里直接算出最终容量，只复制一次
+     *
+     * @param capacity 当前容量
+     * @param size     当前元素个数
+     * @return 新的容量
+     */
+    public int shrink(int capacity, int size) {
+        if (!shrinkable) {
+            return capacity;
+        }
+
+        int newCapacity = capacity;
+        while (newCapacity > minCapacity && size < newCapacity * shrinkThreshold) {
+            newCapacity = Math.max(minCapacity, (int) (newCapacity / growthFactor));
+        }
+
+        return newCapacity;
+    }
+
+    public double getGrowthFactor() {
+        return growthFactor;
+    }
+
+    public double getShrinkThreshold() {
+        return shrinkThreshold;
+    }
+
+    public int getMinCapacity() {
+        return minCapacity;
+    }
+
+    public boolean isShrinkable() {
+        return shrinkable;
+    }
+
+    @Override
+    public String toString() {
+        return "ResizePolicy{" +
+                "growthFactor=" + growthFactor +
+                ", shrinkThreshold=" + shrinkThreshold +
+                ", minCapacity=" + minCapacity +
+                ", shrinkable=" + shrinkable +
+                '}';
+    }
+}
@@ -0,0 +1,274 @@
+package person.companion.array;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：分段数组(tiered vector)
+ * 数据分成若干个长度固定的块存放，每个块都是一个环形数组，除了最后一个块之外其余块都是满的
+ * 1.扩容时只需要新增一个块，不需要像Array一样申请两倍的数组并复制全部元素
+ * 2.在中间插入时，只在插入位置所在的块内移动元素，后面的每个块只需要把最后一个元素挪到下一个块的头部，
+ * 因为块是环形的，挪到头部只需要移动一次head，所以插入删除的复杂度为O(块长度 + 块个数)，块长度取sqrt(n)时为O(sqrt(n))
+ * 3.目录(保存所有块的数组)扩容时只复制块的引用，数量是元素个数的 1/块长度
+ *
+ * author: companion
+ * Write by: 2026/10/18 14:10
+ */
+public class SegmentedArray<E> implements Sequence<E> {
+    // 数组实际元素个数
+    private int size;
+    // 每个块的长度，必须是2的幂，这样可以通过位运算计算块内位置
+    private final int chunkSize;
+    // log2(chunkSize)
+    private final int chunkShift;
+    // chunkSize - 1
+    private final int mask;
+    // 块目录
+    private Object[][] chunks;
+    // 每个块中第一个元素在块内的位置
+    private int[] heads;
+    // 已经申请的块的个数
+    private int chunkCount;
+
+    public SegmentedArray() {
+        // 默认每个块1024个元素
+        this(1024);
+    }
+
+    /**
+     * @param chunkSize 每个块的长度，不是2的幂时向上取整为2的幂
+     */
+    public SegmentedArray(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > (1 << 30)) {
+            throw new IllegalArgumentException("illegal chunk size: " + chunkSize);
+        }
+
+        this.chunkSize = chunkSize == 1 ? 1 : Integer.highestOneBit(chunkSize - 1) << 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(this.chunkSize);
+        this.mask = this.chunkSize - 1;
+        this.chunks = new Object[8][];
+        this.heads = new int[8];
+    }
+
+    /**
+     * 定义一个迭代器
+     */
+    private class SegmentedArrayIterator implements Iterator<E> {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+
+            return element(index++);
+        }
+    }
+
+    /**
+     * 在指定位置添加元素
+     * 插入位置之后的每个块把最后一个元素挪到下一个块的头部，然后在插入位置所在的块内后挪元素
+     *
+     * @param index   添加的索引值
+     * @param element 元素
+     */
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        // 所有块都满了，新增一个块
+        if (size == chunkCount << chunkShift) {
+            addChunk();
+        }
+
+        int chunk = index >>> chunkShift;
+        // 新元素加入之后最后一个元素所在的块
+        int last = size >>> chunkShift;
+        // 从后往前，将前一个块的最后一个元素挪到当前块的头部
+        for (int c = last; c > chunk; c--) {
+            int head = (heads[c] - 1) & mask;
+            int prevTail = (heads[c - 1] + mask) & mask;
+            chunks[c][head] = chunks[c - 1][prevTail];
+            chunks[c - 1][prevTail] = null;
+            heads[c] = head;
+        }
+
+        // 插入位置所在的块当前元素个数
+        int length = chunk < last ? chunkSize - 1 : size - (chunk << chunkShift);
+        Object[] data = chunks[chunk];
+        int head = heads[chunk];
+        int offset = index & mask;
+        // 在块内将插入位置之后的元素后挪一位
+        for (int i = length; i > offset; i--) {
+            data[(head + i) & mask] = data[(head + i - 1) & mask];
+        }
+
+        data[(head + offset) & mask] = element;
+        size++;
+    }
+
+    // 添加元素到最后一位
+    @Override
+    public void addLast(E element) {
+        add(size, element);
+    }
+
+    // 修改元素
+    @Override
+    public void replace(int index, E e) {
+        checkIndex(index);
+        int chunk = index >>> chunkShift;
+        chunks[chunk][(heads[chunk] + (index & mask)) & mask] = e;
+    }
+
+    /**
+     * 删除元素
+     * 在删除位置所在的块内前移元素，然后之后的每个块把第一个元素挪到上一个块的尾部
+     *
+     * @param index 删除的索引值
+     * @return 删除的元素
+     */
+    @Override
+    public E delete(int index) {
+        checkIndex(index);
+        int chunk = index >>> chunkShift;
+        // 当前最后一个元素所在的块
+        int last = (size - 1) >>> chunkShift;
+        int length = chunk < last ? chunkSize : size - (chunk << chunkShift);
+        Object[] data = chunks[chunk];
+        int head = heads[chunk];
+        int offset = index & mask;
+
+        E oldValue = (E) data[(head + offset) & mask];
+        // 在块内将删除位置之后的元素前移一位
+        for (int i = offset; i < length - 1; i++) {
+            data[(head + i) & mask] = data[(head + i + 1) & mask];
+        }
+        data[(head + length - 1) & mask] = null;
+
+        // 从前往后，将后一个块的第一个元素挪到当前块的尾部
+        for (int c = chunk + 1; c <= last; c++) {
+            int nextHead = heads[c];
+            chunks[c - 1][(heads[c - 1] + mask) & mask] = chunks[c][nextHead];
+            chunks[c][nextHead] = null;
+            heads[c] = (nextHead + 1) & mask;
+        }
+
+        size--;
+        releaseChunk();
+        return oldValue;
+    }
+
+    @Override
+    public E deleteLast() {
+        return delete(size - 1);
+    }
+
+    // 查找元素
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        return element(index);
+    }
+
+    @Override
+    public E getLast() {
+        return get(size - 1);
+    }
+
+    @Override
+    public int indexOf(E e) {
+        for (int i = 0; i < size; i++) {
+            if (element(i).equals(e)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) > -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取已经申请的块的个数
+     *
+     * @return 块的个数
+     */
+    public int chunkCount() {
+        return chunkCount;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new SegmentedArrayIterator();
+    }
+
+    // 覆写打印方法
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            builder.append(element(i));
+        }
+
+        return builder.append("]").toString();
+    }
+
+    private E element(int index) {
+        int chunk = index >>> chunkShift;
+        return (E) chunks[chunk][(heads[chunk] + (index & mask)) & mask];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || size - 1 < index) {
+            throw new RuntimeException("index out of bound");
+        }
+    }
+
+    /**
+     * 新增一个块，目录满了之后目录扩容为两倍，这里只复制块的引用
+     */
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            Object[][] newChunks = new Object[chunkCount << 1][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            int[] newHeads = new int[chunkCount << 1];
+            System.arraycopy(heads, 0, newHeads, 0, chunkCount);
+            chunks = newChunks;
+            heads = newHeads;
+        }
+
+        chunks[chunkCount] = new Object[chunkSize];
+        heads[chunkCount] = 0;
+        chunkCount++;
+    }
+
+    /**
+     * 空闲的块超过一个时释放最后一个块，保留一个空闲的块是为了防止在块的边界来回增删时频繁申请释放
+     */
+    private void releaseChunk() {
+        if (chunkCount >= 2 && (chunkCount - 2) << chunkShift >= size) {
+            chunks[--chunkCount] = null;
+        }
+    }
+}
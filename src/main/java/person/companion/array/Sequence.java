@@ -0,0 +1,46 @@
+package person.companion.array;
+
+import java.util.Iterator;
+
+/**
+ * 功能描述：按索引访问的线性表接口，Array以及其他不同存储方式的数组都实现该接口
+ * StackArray、QueueArray只依赖这个接口，可以自由选择底层使用哪种数组
+ *
+ * author: companion
+ * Write by: 2026/10/18 14:05
+ */
+public interface Sequence<E> extends Iterable<E> {
+    // 在指定位置添加元素
+    void add(int index, E e);
+
+    // 添加元素到最后一位
+    void addLast(E e);
+
+    // 修改元素
+    void replace(int index, E e);
+
+    // 删除元素
+    E delete(int index);
+
+    // 删除最后一个元素
+    E deleteLast();
+
+    // 查找元素
+    E get(int index);
+
+    // 获取最后一个元素
+    E getLast();
+
+    // 查找元素索引，不存在时返回-1
+    int indexOf(E e);
+
+    // 是否包含元素
+    boolean contains(E e);
+
+    // 获取长度
+    int size();
+
+    // 迭代器
+    @Override
+    Iterator<E> iterator();
+}
@@ -1,8 +1,14 @@
 package person.companion.array;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 功能描述：自定义排序(默认升序)可重复的数组
@@ -10,11 +16,15 @@ import java.util.List;
  * author: companion
  * Write by: 2021/8/8 10:20
  */
-public class SortArray<E> {
+public class SortArray<E> implements Iterable<E> {
     // 数组实际元素个数
     private int size;
     // 数组长度
     private int capacity;
+    // 扩容缩容策略
+    private final ResizePolicy policy;
+    // 扩容缩容的次数，用于观察是否频繁扩缩容
+    private int resizeCount;
 
     E[] data;
 
@@ -24,10 +34,28 @@ public class SortArray<E> {
     }
 
     private SortArray(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    public SortArray(int capacity, ResizePolicy policy) {
         this.capacity = capacity;
+        this.policy = policy;
         data = (E[]) new Object[this.capacity];
     }
 
+    /**
+     * 直接使用已经按自然顺序排好序的数组作为底层数组，不复制，只在包内使用
+     *
+     * @param data 底层数组
+     * @param size 实际元素个数
+     */
+    SortArray(Object[] data, int size, ResizePolicy policy) {
+        this.data = (E[]) data;
+        this.size = size;
+        this.capacity = data.length;
+        this.policy = policy;
+    }
+
     /**
      * 定义一个迭代器
      */
@@ -45,6 +73,96 @@ public class SortArray<E> {
         }
     }
 
+    /**
+     * 区间视图，表示原数组中[begin, end)这一段元素，与原数组共用同一个底层数组，创建时不复制数据
+     * 视图只记录创建时的索引区间，原数组插入或删除元素之后视图不再有效，需要重新创建
+     */
+    public class Range implements Iterable<E> {
+        private final int begin;
+        private final int end;
+
+        private Range(int begin, int end) {
+            this.begin = begin;
+            this.end = end;
+        }
+
+        // 查找视图中的第index个元素
+        public E get(int index) {
+            if (index < 0 || end - begin - 1 < index) {
+                throw new RuntimeException("index out of bound");
+            }
+
+            return data[begin + index];
+        }
+
+        public int size() {
+            return end - begin;
+        }
+
+        /**
+         * 视图的第一个元素在原数组中的索引
+         *
+         * @return 索引
+         */
+        public int begin() {
+            return begin;
+        }
+
+        /**
+         * 视图最后一个元素之后的位置在原数组中的索引
+         *
+         * @return 索引
+         */
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                int index = begin;
+
+                @Override
+                public boolean hasNext() {
+                    return index < end;
+                }
+
+                @Override
+                public E next() {
+                    if (index >= end) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return data[index++];
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new ArraySpliterator<>(data, begin, end, Spliterator.SORTED);
+        }
+
+        public Stream<E> stream() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        // 覆写打印方法
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = begin; i < end; i++) {
+                if (i > begin) {
+                    builder.append(",");
+                }
+
+                builder.append(data[i]);
+            }
+
+            return builder.append("]").toString();
+        }
+    }
+
     /**
      * 将数据以ArrayList的形式返回
      *
@@ -52,7 +170,7 @@ public class SortArray<E> {
      */
     public List<E> toList() {
         List<E> list = new ArrayList<>();
-        ArrayIterator iterator = iterator();
+        Iterator<E> iterator = iterator();
         while (iterator.hasNext()){
             list.add(iterator.next());
         }
@@ -62,35 +180,193 @@ public class SortArray<E> {
 
     /**
      * 添加元素方法
-     * 这里需要将插入的元素索引之后的全部元素向后移动一次
+     * 通过二分查找找到插入位置，然后将插入位置之后的全部元素整块向后移动一次
+     * 相等的元素保持插入顺序：新元素放在所有与它相等的元素之后
      *
      * @param element 元素
      * @return 添加的元素
      */
     public void add(E element) {
-        int index = size;
-        Comparable<? super E> comparator = (Comparable<? super E>) element;
         // 判断数组是否已满
         if (size == capacity) {
-            capacity = capacity << 1;
-            resize(capacity);
+            ensureCapacity(size + 1);
+        }
+
+        // 找到元素插入位置：第一个大于该元素的位置
+        int index = upperBound(element);
+        // 将所有元素大于添加元素的数据整块后移一位
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        size++;
+        data[index] = element;
+    }
+
+    /**
+     * 批量添加元素
+     * 先将这一批元素排序一次(O(m log m))，再与已有元素从后往前归并(O(n + m))，
+     * 比逐个add的O(n * m)快得多。相等的元素中，新元素放在已有元素之后
+     *
+     * @param elements 需要添加的元素，不要求有序
+     */
+    public void addAll(Collection<? extends E> elements) {
+        Object[] batch = elements.toArray();
+        if (batch.length == 0) {
+            return;
         }
 
-        // 找到元素插入位置
-        for (int i = 0; i < size; i++) {
-            if (comparator.compareTo(data[i]) < 0) {
-                index = i;
-                break;
+        // Arrays.sort对对象数组使用稳定的归并排序，同一批中相等的元素也保持原来的顺序
+        Arrays.sort(batch);
+        ensureCapacity(size + batch.length);
+
+        // 从后往前归并，每次取较大的放到末尾，这样不需要额外的数组
+        int i = size - 1;
+        int j = batch.length - 1;
+        int k = size + batch.length - 1;
+        while (j >= 0) {
+            if (i >= 0 && NaturalOrder.compare(data[i], (E) batch[j]) > 0) {
+                data[k--] = data[i--];
+            } else {
+                // 相等时先放新元素，新元素就排在已有元素之后
+                data[k--] = (E) batch[j--];
+            }
+        }
+
+        size += batch.length;
+    }
+
+    /**
+     * 使用一批无序的元素创建SortArray，只排序一次
+     *
+     * @param elements 元素集合
+     * @return 排好序的数组
+     */
+    public static <E extends Comparable<? super E>> SortArray<E> fromUnsorted(Collection<? extends E> elements) {
+        SortArray<E> array = new SortArray<>(Math.max(elements.size(), 1), ResizePolicy.DEFAULT);
+        array.addAll(elements);
+        return array;
+    }
+
+    /**
+     * 二分查找第一个大于等于e的元素的位置
+     *
+     * @param e 需要查找的元素
+     * @return 第一个大于等于e的元素的索引，所有元素都小于e时返回size
+     */
+    public int lowerBound(E e) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (NaturalOrder.compare(data[mid], e) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
-        // 将插入元素之后的元素后挪一位
-        for (int i = size - 1; i >= index; i--) {
-            // 将所有元素大于添加元素的数据后移一位
-            data[i + 1] = data[i];
+
+        return low;
+    }
+
+    /**
+     * 二分查找第一个大于e的元素的位置
+     *
+     * @param e 需要查找的元素
+     * @return 第一个大于e的元素的索引，所有元素都小于等于e时返回size
+     */
+    public int upperBound(E e) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (NaturalOrder.compare(data[mid], e) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
 
-        size++;
-        data[index] = element;
+        return low;
+    }
+
+    /**
+     * 小于等于e的最大元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E floor(E e) {
+        int index = upperBound(e) - 1;
+        return index < 0 ? null : data[index];
+    }
+
+    /**
+     * 大于等于e的最小元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E ceiling(E e) {
+        int index = lowerBound(e);
+        return index == size ? null : data[index];
+    }
+
+    /**
+     * 大于e的最小元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E higher(E e) {
+        int index = upperBound(e);
+        return index == size ? null : data[index];
+    }
+
+    /**
+     * 小于e的最大元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素，不存在时返回null
+     */
+    public E lower(E e) {
+        int index = lowerBound(e) - 1;
+        return index < 0 ? null : data[index];
+    }
+
+    /**
+     * 元素的排名，即小于e的元素个数，e不需要在数组中
+     *
+     * @param e 元素
+     * @return 排名，从0开始
+     */
+    public int rank(E e) {
+        return lowerBound(e);
+    }
+
+    /**
+     * 排名为k的元素，即第k小的元素(从0开始)，数组有序所以就是索引k处的元素
+     *
+     * @param k 排名
+     * @return 元素
+     */
+    public E select(int k) {
+        if (k < 0 || size - 1 < k) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        return data[k];
+    }
+
+    /**
+     * 获取值在[from, to)之间的元素的视图，两次二分查找确定区间，O(log n)，不复制数据
+     *
+     * @param from 下界(包含)
+     * @param to   上界(不包含)
+     * @return 区间视图
+     */
+    public Range subRange(E from, E to) {
+        int begin = lowerBound(from);
+        int end = lowerBound(to);
+        return new Range(begin, Math.max(begin, end));
     }
 
     // 修改元素
@@ -103,17 +379,36 @@ public class SortArray<E> {
     }
 
     /**
-     * 数组扩容
+     * 保证数组至少能存放minCapacity个元素，按扩容策略计算新的容量
+     *
+     * @param minCapacity 需要的最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            resize(policy.grow(capacity, minCapacity));
+        }
+    }
+
+    /**
+     * 将数组容量缩小为实际元素个数
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 数组扩容或缩容
      */
     private void resize(int newCapacity) {
-        // 扩容为原来的两倍
         E[] newData = (E[]) new Object[newCapacity];
-        // 将数据存入新的数组
-        for (int i = 0; i < size; i++) {
-            newData[i] = data[i];
-        }
+        // 将数据整块存入新的数组
+        System.arraycopy(data, 0, newData, 0, size);
 
         data = newData;
+        capacity = newCapacity;
+        resizeCount++;
     }
 
     // 删除元素
@@ -123,15 +418,13 @@ public class SortArray<E> {
         }
 
         E oldValue = data[index];
-        for (int i = index; i < size - 1; i++) {
-            data[i] = data[i + 1];
-        }
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
 
         data[--size] = null;
-        // 如果容量小于三分之一减小数组长度，这里与扩容标准不同是为了防止频繁扩容与缩容
-        if (size < capacity / 3) {
-            capacity = capacity >> 1;
-            resize(capacity);
+        // 按缩容策略减小数组长度，缩容阈值与扩容标准不同是为了防止频繁扩容与缩容
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity != capacity) {
+            resize(newCapacity);
         }
 
         return oldValue;
@@ -144,8 +437,15 @@ public class SortArray<E> {
         return data[index];
     }
 
+    /**
+     * 二分查找元素第一次出现的位置
+     * 先找到第一个大于等于e的位置，再在与e相等的这一段中找equals的元素
+     *
+     * @param e 需要查找的元素
+     * @return 元素索引，不存在时返回-1
+     */
     public int indexOf(E e) {
-        for (int i = 0; i < size; i++) {
+        for (int i = lowerBound(e); i < size && NaturalOrder.compare(data[i], e) == 0; i++) {
             if (data[i].equals(e)) {
                 return i;
             }
@@ -166,7 +466,7 @@ public class SortArray<E> {
         }
 
         StringBuilder builder = new StringBuilder("[");
-        SortArray.ArrayIterator iterator = iterator();
+        Iterator<E> iterator = iterator();
         while (iterator.hasNext()) {
             builder.append(iterator.next()).append(",");
         }
@@ -183,11 +483,63 @@ public class SortArray<E> {
         return size;
     }
 
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
     public E getLast() {
         return data[size - 1];
     }
 
-    public SortArray.ArrayIterator iterator() {
-        return new SortArray.ArrayIterator();
+    @Override
+    public Iterator<E> iterator() {
+        return new ArrayIterator();
+    }
+
+    /**
+     * 创建只读快照，元素按Eytzinger顺序重新排列，查找时对缓存更友好，适合只读的查找表
+     * 快照复制了一份数据，之后对当前数组的修改不会影响快照
+     *
+     * @return 只读快照
+     */
+    public FrozenSortArray<E> freeze() {
+        return new FrozenSortArray<>(data, size);
+    }
+
+    /**
+     * 获取可拆分的迭代器，按索引均匀拆分，元素按自然顺序排列，带有SORTED特征
+     *
+     * @return Spliterator
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArraySpliterator<>(data, 0, size, Spliterator.SORTED);
+    }
+
+    /**
+     * 获取顺序流
+     *
+     * @return 顺序流
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 获取并行流，使用公共的ForkJoinPool
+     *
+     * @return 并行流
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 }
@@ -0,0 +1,250 @@
+package person.companion.queue;
+
+import person.companion.stack.Stack;
+
+/**
+ * 功能描述：使用循环数组实现的双端队列，两端插入删除都是O(1)，同时实现了Stack与Queue接口
+ * 1.数组长度总是2的幂，head与tail一直变化，用 index & (length - 1) 得到实际位置，
+ * 在队首插入时head减一，int溢出之后取模的结果仍然正确，tail - head就是元素个数
+ * 2.数组满了之后扩容为原来的两倍，扩容时把环展开，从队首开始按顺序复制到新数组的开头
+ * 3.作为Stack使用时栈顶在队尾，作为Queue使用时从队尾入队、从队首出队，
+ * 可以直接替换StackArray和QueueArray，不需要修改调用的代码；ArrayQueue也是基于它实现的
+ * 允许添加null(StackArray也允许)，这时pollFirst/pollLast/peekFirst/peekLast返回的null有两种含义，
+ * 需要先用isEmpty判断；pop/deQueue/peek/getFront在为空时抛出异常
+ *
+ * author: companion
+ * Write by: 2026/10/18 23:40
+ */
+public class ArrayDeque<E> implements Deque<E>, Stack<E>, Queue<E> {
+    private Object[] elements;
+    // 队首的位置
+    private int head;
+    // 队尾之后的位置
+    private int tail;
+    // 扩容的次数，用于观察是否频繁扩容
+    private int resizeCount;
+
+    public ArrayDeque() {
+        // 默认初始化元素为16个
+        this(16);
+    }
+
+    /**
+     * @param capacity 初始容量，不是2的幂时向上取整为2的幂
+     */
+    public ArrayDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+
+        elements = new Object[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+    }
+
+    @Override
+    public void addFirst(E e) {
+        if (tail - head == elements.length) {
+            grow();
+        }
+
+        elements[--head & (elements.length - 1)] = e;
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (tail - head == elements.length) {
+            grow();
+        }
+
+        elements[tail++ & (elements.length - 1)] = e;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        int index = head++ & (elements.length - 1);
+        E e = (E) elements[index];
+        // 置空方便垃圾回收
+        elements[index] = null;
+        return e;
+    }
+
+    @Override
+    public E pollLast() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        int index = --tail & (elements.length - 1);
+        E e = (E) elements[index];
+        elements[index] = null;
+        return e;
+    }
+
+    @Override
+    public E peekFirst() {
+        return isEmpty() ? null : (E) elements[head & (elements.length - 1)];
+    }
+
+    @Override
+    public E peekLast() {
+        return isEmpty() ? null : (E) elements[(tail - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * 入栈，栈顶在队尾
+     *
+     * @param e 需要入栈的元素
+     */
+    @Override
+    public void push(E e) {
+        addLast(e);
+    }
+
+    /**
+     * 出栈
+     *
+     * @return 出栈的元素
+     */
+    @Override
+    public E pop() {
+        checkNotEmpty();
+        return pollLast();
+    }
+
+    /**
+     * 获取栈顶元素
+     *
+     * @return 栈顶元素
+     */
+    @Override
+    public E peek() {
+        checkNotEmpty();
+        return peekLast();
+    }
+
+    /**
+     * 出栈一个元素并且返回当前栈顶
+     *
+     * @return 当前栈顶元素
+     */
+    @Override
+    public E popPeek() {
+        if (isEmpty()) return null;
+        pollLast();
+
+        return peekLast();
+    }
+
+    /**
+     * 入队，插入到队尾
+     *
+     * @param e 需要插入的元素
+     */
+    @Override
+    public void enQueue(E e) {
+        addLast(e);
+    }
+
+    /**
+     * 出队，删除队首元素
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E deQueue() {
+        checkNotEmpty();
+        return pollFirst();
+    }
+
+    /**
+     * 获取队首的值
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E getFront() {
+        checkNotEmpty();
+        return peekFirst();
+    }
+
+    @Override
+    public int size() {
+        return tail - head;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tail == head;
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * 获取扩容的次数
+     *
+     * @return 扩容的次数
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    private void checkNotEmpty() {
+        if (isEmpty()) {
+            throw new RuntimeException("deque is empty");
+        }
+    }
+
+    /**
+     * 扩容为原来的两倍，把环从队首处展开，分两段复制到新数组的开头
+     */
+    private void grow() {
+        int size = size();
+        if (size == 1 << 30) {
+            throw new RuntimeException("deque is full");
+        }
+
+        Object[] newElements = new Object[elements.length << 1];
+        int start = head & (elements.length - 1);
+        // 从队首到数组末尾的一段
+        int first = Math.min(size, elements.length - start);
+        System.arraycopy(elements, start, newElements, 0, first);
+        // 绕回数组开头的一段
+        System.arraycopy(elements, 0, newElements, first, size - first);
+
+        elements = newElements;
+        head = 0;
+        tail = size;
+        resizeCount++;
+    }
+
+    /**
+     * 从队首到队尾打印元素，例如[a,b,c]
+     */
+    String elementsToString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = head; i != tail; i++) {
+            if (i != head) {
+                builder.append(",");
+            }
+
+            builder.append(elements[i & (elements.length - 1)]);
+        }
+
+        return builder.append("]").toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayDeque{front:" + elementsToString() + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package person.companion.queue;
+
+/**
+ * 功能描述：使用循环数组(环形缓冲区)实现的队列，入队出队都是O(1)
+ * 环形缓冲区由ArrayDeque实现(2的幂长度、一直变化的head与tail、扩容时把环展开)，
+ * 这里只从队尾入队、从队首出队，不暴露双端队列与栈的操作
+ *
+ * author: companion
+ * Write by: 2026/10/18 22:00
+ */
+public class ArrayQueue<E> implements Queue<E> {
+    private final ArrayDeque<E> deque;
+
+    public ArrayQueue() {
+        // 默认初始化元素为16个
+        this(16);
+    }
+
+    /**
+     * @param capacity 初始容量，不是2的幂时向上取整为2的幂
+     */
+    public ArrayQueue(int capacity) {
+        deque = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * 插入元素
+     *
+     * @param e 需要插入的元素
+     */
+    @Override
+    public void enQueue(E e) {
+        deque.addLast(e);
+    }
+
+    /**
+     * 删除元素
+     *
+     * @return 需要删除的元素
+     */
+    @Override
+    public E deQueue() {
+        if (isEmpty()) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return deque.pollFirst();
+    }
+
+    /**
+     * 获取队首的值
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E getFront() {
+        if (isEmpty()) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return deque.peekFirst();
+    }
+
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return deque.isEmpty();
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    public int capacity() {
+        return deque.capacity();
+    }
+
+    /**
+     * 获取扩容的次数
+     *
+     * @return 扩容的次数
+     */
+    public int getResizeCount() {
+        return deque.getResizeCount();
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayQueue{front:" + deque.elementsToString() + "}";
+    }
+}
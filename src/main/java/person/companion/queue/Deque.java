@@ -0,0 +1,36 @@
+package person.companion.queue;
+
+/**
+ * 功能描述：自定义双端队列接口，两端都可以插入和删除
+ *
+ * author: companion
+ * Write by: 2026/10/18 23:40
+ */
+public interface Deque<E> {
+    // 插入到队首
+    void addFirst(E e);
+
+    // 插入到队尾
+    void addLast(E e);
+
+    // 删除队首元素，为空时返回null
+    E pollFirst();
+
+    // 删除队尾元素，为空时返回null
+    E pollLast();
+
+    // 获取队首元素，为空时返回null
+    E peekFirst();
+
+    // 获取队尾元素，为空时返回null
+    E peekLast();
+
+    // 获取长度
+    int size();
+
+    // 是否为空
+    boolean isEmpty();
+
+    // 是否不为空
+    boolean isNotEmpty();
+}
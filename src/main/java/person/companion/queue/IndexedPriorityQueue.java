@@ -0,0 +1,254 @@
+package person.companion.queue;
+
+import person.companion.array.IntArray;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 功能描述：带索引的d叉堆优先队列，每个元素有一个[0, maxSize)范围内的编号，可以按编号修改优先级
+ * 1.堆中保存的是编号，keys[id]为编号对应的优先级，positions[id]为编号在堆中的位置，不在堆中时为-1
+ * 2.通过positions可以O(1)找到某个编号在堆中的位置，decreaseKey只需要从这个位置向上调整，O(log n)，
+ * 适合Dijkstra等需要不断降低优先级的算法，不需要把同一个编号重复入队
+ *
+ * author: companion
+ * Write by: 2026/10/18 23:10
+ */
+public class IndexedPriorityQueue<E> {
+    // 默认使用4叉堆
+    private static final int DEFAULT_ARITY = 4;
+
+    // 堆，保存编号
+    private final IntArray heap;
+    // 编号 -> 优先级
+    private final Object[] keys;
+    // 编号 -> 在堆中的位置，不在堆中时为-1
+    private final int[] positions;
+    private final int arity;
+    private final Comparator<? super E> comparator;
+
+    /**
+     * 按自然顺序比较优先级
+     *
+     * @param maxSize 编号的范围[0, maxSize)
+     */
+    public IndexedPriorityQueue(int maxSize) {
+        this(maxSize, DEFAULT_ARITY, null);
+    }
+
+    /**
+     * @param maxSize    编号的范围[0, maxSize)
+     * @param arity      每个节点的子节点个数，至少为2
+     * @param comparator 比较器，为null时按自然顺序
+     */
+    public IndexedPriorityQueue(int maxSize, int arity, Comparator<? super E> comparator) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+
+        this.heap = new IntArray(Math.max(maxSize, 1));
+        this.keys = new Object[maxSize];
+        this.positions = new int[maxSize];
+        Arrays.fill(positions, -1);
+        this.arity = arity;
+        this.comparator = comparator == null ? (a, b) -> ((Comparable<? super E>) a).compareTo(b) : comparator;
+    }
+
+    /**
+     * 插入编号及其优先级
+     *
+     * @param id  编号
+     * @param key 优先级
+     */
+    public void insert(int id, E key) {
+        if (contains(id)) {
+            throw new RuntimeException("id already exists: " + id);
+        }
+
+        keys[id] = key;
+        heap.addLast(id);
+        siftUp(heap.size() - 1, id);
+    }
+
+    /**
+     * 降低编号的优先级(改为更小的值)，O(log n)
+     *
+     * @param id  编号，必须在队列中
+     * @param key 新的优先级，不能大于原来的优先级
+     */
+    public void decreaseKey(int id, E key) {
+        checkContains(id);
+        if (comparator.compare(key, (E) keys[id]) > 0) {
+            throw new IllegalArgumentException("key is greater than the current key");
+        }
+
+        keys[id] = key;
+        siftUp(positions[id], id);
+    }
+
+    /**
+     * 修改编号的优先级，可以变大也可以变小
+     *
+     * @param id  编号，必须在队列中
+     * @param key 新的优先级
+     */
+    public void changeKey(int id, E key) {
+        checkContains(id);
+        keys[id] = key;
+        siftUp(positions[id], id);
+        siftDown(positions[id], id);
+    }
+
+    /**
+     * 删除优先级最小的编号
+     *
+     * @return 编号
+     */
+    public int deleteMin() {
+        int min = minId();
+        int last = heap.deleteLast();
+        if (heap.size() > 0) {
+            siftDown(0, last);
+        }
+
+        positions[min] = -1;
+        keys[min] = null;
+        return min;
+    }
+
+    /**
+     * 优先级最小的编号
+     *
+     * @return 编号
+     */
+    public int minId() {
+        if (isEmpty()) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return heap.get(0);
+    }
+
+    /**
+     * 最小的优先级
+     *
+     * @return 优先级
+     */
+    public E minKey() {
+        return (E) keys[minId()];
+    }
+
+    /**
+     * 编号的优先级
+     *
+     * @param id 编号，必须在队列中
+     * @return 优先级
+     */
+    public E keyOf(int id) {
+        checkContains(id);
+        return (E) keys[id];
+    }
+
+    public boolean contains(int id) {
+        if (id < 0 || id >= positions.length) {
+            throw new RuntimeException("index out of bound");
+        }
+
+        return positions[id] >= 0;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.size() == 0;
+    }
+
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    private void checkContains(int id) {
+        if (!contains(id)) {
+            throw new RuntimeException("id not found: " + id);
+        }
+    }
+
+    /**
+     * 把编号id放到位置i，并向上调整
+     */
+    private void siftUp(int i, int id) {
+        E key = (E) keys[id];
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            int parentId = heap.get(parent);
+            if (comparator.compare(key, (E) keys[parentId]) >= 0) {
+                break;
+            }
+
+            place(i, parentId);
+            i = parent;
+        }
+
+        place(i, id);
+    }
+
+    /**
+     * 把编号id放到位置i，并向下调整
+     */
+    private void siftDown(int i, int id) {
+        E key = (E) keys[id];
+        int size = heap.size();
+        while (true) {
+            int first = arity * i + 1;
+            if (first >= size) {
+                break;
+            }
+
+            // 在连续的d个子节点中找最小的
+            int min = first;
+            int minId = heap.get(first);
+            int end = Math.min(first + arity, size);
+            for (int child = first + 1; child < end; child++) {
+                int childId = heap.get(child);
+                if (comparator.compare((E) keys[childId], (E) keys[minId]) < 0) {
+                    min = child;
+                    minId = childId;
+                }
+            }
+
+            if (comparator.compare((E) keys[minId], key) >= 0) {
+                break;
+            }
+
+            place(i, minId);
+            i = min;
+        }
+
+        place(i, id);
+    }
+
+    /**
+     * 把编号放到堆的位置i，同时更新positions
+     */
+    private void place(int i, int id) {
+        heap.replace(i, id);
+        positions[id] = i;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("IndexedPriorityQueue{heap:[");
+        for (int i = 0; i < heap.size(); i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+
+            int id = heap.get(i);
+            builder.append(id).append("=").append(keys[id]);
+        }
+
+        return builder.append("]}").toString();
+    }
+}
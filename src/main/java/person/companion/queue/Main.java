@@ -1,6 +1,22 @@
 package person.companion.queue;
 
+import org.junit.Assert;
 import org.junit.Test;
+import person.companion.array.SegmentedArray;
+import person.companion.array.SortArray;
+import person.companion.stack.Stack;
+import person.companion.stack.StackArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 功能描述：
@@ -21,4 +37,497 @@ public class Main {
             System.out.println(queue);
         }
     }
+
+    /**
+     * 使用分段数组作为队列的底层存储
+     */
+    @Test
+    public void test1() {
+        QueueArray<Integer> queue = new QueueArray<>(new SegmentedArray<>(4));
+        for (int i = 0; i < 10; i++) {
+            queue.enQueue(i);
+            if (i > 6) {
+                queue.deQueue();
+            }
+
+            System.out.println(queue);
+        }
+    }
+
+    /**
+     * 测试循环数组队列：环绕之后扩容，元素顺序保持不变，并与QueueArray比较出队的速度
+     */
+    @Test
+    public void test2() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(4);
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(2);
+        for (int i = 0; i < 10_000; i++) {
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                queue.enQueue(i);
+                expected.addLast(i);
+            } else {
+                Assert.assertEquals(expected.getFirst(), queue.getFront());
+                Assert.assertEquals(expected.removeFirst(), queue.deQueue());
+            }
+
+            Assert.assertEquals(expected.size(), queue.size());
+        }
+        while (queue.isNotEmpty()) {
+            Assert.assertEquals(expected.removeFirst(), queue.deQueue());
+        }
+        Assert.assertEquals("ArrayQueue{front:[]}", queue.toString());
+        Assert.assertEquals(8, new ArrayQueue<>(5).capacity());
+
+        int n = 100_000;
+        QueueArray<Integer> shifting = new QueueArray<>();
+        ArrayQueue<Integer> ring = new ArrayQueue<>();
+        long begin = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            shifting.enQueue(i);
+        }
+        while (shifting.isNotEmpty()) {
+            shifting.deQueue();
+        }
+        long shiftingTime = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            ring.enQueue(i);
+        }
+        while (ring.isNotEmpty()) {
+            ring.deQueue();
+        }
+        long ringTime = System.nanoTime() - begin;
+        System.out.printf("enQueue + drain %d: QueueArray %d ms, ArrayQueue %d ms, resize %d%n",
+                n, shiftingTime / 1_000_000, ringTime / 1_000_000, ring.getResizeCount());
+    }
+
+    /**
+     * SPSC队列的吞吐量与延迟测试，一个生产者线程、一个消费者线程
+     * Java不能把线程绑定到CPU核上，需要绑核时用taskset等工具限制整个JVM进程
+     */
+    @Test
+    public void test3() throws InterruptedException {
+        int n = 2_000_000;
+        // 提前装箱，两种方式入队的是同一批对象，批量入队时直接使用子列表，不复制
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        List<Integer> valueList = Arrays.asList(values);
+        for (int batch : new int[]{1, 64}) {
+            SpscQueue<Integer> queue = new SpscQueue<>(1024);
+            AtomicBoolean failed = new AtomicBoolean();
+            Thread consumer = new Thread(() -> {
+                int expected = 0;
+                List<Integer> received = new ArrayList<>();
+                while (expected < n) {
+                    if (batch == 1) {
+                        Integer e = queue.poll();
+                        if (e == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        received.add(e);
+                    } else if (queue.poll(received::add, batch) == 0) {
+                        Thread.yield();
+                        continue;
+                    }
+
+                    for (Integer e : received) {
+                        if (e != expected++) {
+                            failed.set(true);
+                        }
+                    }
+                    received.clear();
+                }
+            });
+
+            long begin = System.nanoTime();
+            consumer.start();
+            for (int i = 0; i < n; ) {
+                if (batch == 1) {
+                    if (queue.offer(values[i])) {
+                        i++;
+                    } else {
+                        Thread.yield();
+                    }
+                    continue;
+                }
+
+                int accepted = queue.offer(valueList.subList(i, Math.min(n, i + batch)));
+                if (accepted == 0) {
+                    Thread.yield();
+                }
+                i += accepted;
+            }
+            consumer.join();
+            long elapsed = System.nanoTime() - begin;
+            Assert.assertFalse(failed.get());
+            Assert.assertTrue(queue.isEmpty());
+            System.out.printf("spsc batch %d: %d messages in %d ms, %.1f M/s%n",
+                    batch, n, elapsed / 1_000_000, n * 1000.0 / elapsed);
+        }
+
+        // 延迟：生产者发送当前时间，消费者收到时计算差值
+        int samples = 100_000;
+        SpscQueue<Long> queue = new SpscQueue<>(1024);
+        long[] latencies = new long[samples];
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < samples; ) {
+                Long sent = queue.poll();
+                if (sent == null) {
+                    Thread.yield();
+                    continue;
+                }
+                latencies[i++] = System.nanoTime() - sent;
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < samples; ) {
+            if (queue.offer(System.nanoTime())) {
+                i++;
+            } else {
+                Thread.yield();
+            }
+        }
+        consumer.join();
+        Arrays.sort(latencies);
+        System.out.printf("spsc latency on %d cpu: p50 %d ns, p99 %d ns%n", Runtime.getRuntime().availableProcessors(),
+                latencies[samples / 2], latencies[samples * 99 / 100]);
+
+        SpscQueue<String> single = new SpscQueue<>(3);
+        Assert.assertEquals(4, single.capacity());
+        Assert.assertEquals(2, single.offer(Arrays.asList("a", "b")));
+        Assert.assertEquals(2, single.offer(Arrays.asList("c", "d", "e")));
+        Assert.assertFalse(single.offer("f"));
+        Assert.assertEquals("a", single.getFront());
+        Assert.assertEquals("a", single.deQueue());
+        Assert.assertEquals(3, single.size());
+        Assert.assertNull(new SpscQueue<String>(1).poll());
+
+        // 批量出队时consumer抛出异常，剩下的元素仍然在队列中
+        SpscQueue<String> failing = new SpscQueue<>(8);
+        failing.offer(Arrays.asList("a", "b", "c", "d"));
+        List<String> consumed = new ArrayList<>();
+        try {
+            failing.poll(e -> {
+                if (e.equals("b")) {
+                    throw new IllegalStateException(e);
+                }
+                consumed.add(e);
+            }, 4);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("b", e.getMessage());
+        }
+        Assert.assertEquals(Collections.singletonList("a"), consumed);
+        Assert.assertEquals(2, failing.size());
+        Assert.assertEquals("c", failing.poll());
+        Assert.assertEquals("d", failing.poll());
+        Assert.assertNull(failing.poll());
+    }
+
+    /**
+     * 测试MPMC阻塞队列：4个生产者、4个消费者通过一个很小的队列传递数据，队列满时生产者等待
+     */
+    @Test
+    public void test4() throws InterruptedException {
+        MpmcQueue<Integer> queue = new MpmcQueue<>(16);
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 100_000;
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.put(base + i);
+                    }
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                }
+            }));
+        }
+        // 生产者都结束之后设置done，消费者取完剩下的元素之后退出
+        AtomicBoolean done = new AtomicBoolean();
+        for (int c = 0; c < consumers; c++) {
+            int id = c;
+            threads.add(new Thread(() -> {
+                List<Integer> batch = new ArrayList<>();
+                try {
+                    while (!(done.get() && queue.isEmpty())) {
+                        // 一半的消费者批量出队
+                        if (id % 2 == 0) {
+                            if (queue.drainTo(batch, 8) == 0) {
+                                Thread.yield();
+                                continue;
+                            }
+                        } else {
+                            Integer e = queue.poll(1, TimeUnit.MILLISECONDS);
+                            if (e == null) {
+                                continue;
+                            }
+                            batch.add(e);
+                        }
+
+                        for (Integer e : batch) {
+                            sum.addAndGet(e);
+                            count.incrementAndGet();
+                        }
+                        batch.clear();
+                    }
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                }
+            }));
+        }
+
+        long begin = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (int p = 0; p < producers; p++) {
+            threads.get(p).join();
+        }
+        done.set(true);
+        for (int c = 0; c < consumers; c++) {
+            threads.get(producers + c).join();
+        }
+        long total = (long) producers * perProducer;
+        System.out.printf("mpmc %d producers, %d consumers: %d messages in %d ms%n",
+                producers, consumers, total, (System.nanoTime() - begin) / 1_000_000);
+        Assert.assertFalse(failed.get());
+        Assert.assertEquals(total, count.get());
+        Assert.assertEquals(total * (total - 1) / 2, sum.get());
+
+        // 超时
+        MpmcQueue<String> small = new MpmcQueue<>(2);
+        Assert.assertTrue(small.offer("a", 10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(small.offer("b"));
+        long start = System.nanoTime();
+        Assert.assertFalse(small.offer("c", 20, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assert.assertEquals("a", small.getFront());
+        Assert.assertEquals(2, small.size());
+        List<String> drained = new ArrayList<>();
+        Assert.assertEquals(2, small.drainTo(drained, 10));
+        Assert.assertEquals(Arrays.asList("a", "b"), drained);
+        Assert.assertNull(small.poll(20, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(small.isEmpty());
+
+        // 队列中一直至少有一个元素，其他消费者同时出队时getFront也不能抛出队列为空
+        MpmcQueue<Integer> busy = new MpmcQueue<>(4);
+        busy.offer(-1);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread mover = new Thread(() -> {
+            for (int i = 0; !stop.get(); i++) {
+                busy.offer(i);
+                busy.poll();
+            }
+        });
+        mover.start();
+        try {
+            for (int i = 0; i < 200_000; i++) {
+                Assert.assertNotNull(busy.getFront());
+            }
+        } finally {
+            stop.set(true);
+            mover.join();
+        }
+    }
+
+    /**
+     * 测试d叉堆优先队列：出队顺序、建堆，以及带索引的优先队列实现Dijkstra
+     */
+    @Test
+    public void test5() {
+        Random random = new Random(5);
+        for (int arity = 2; arity <= 5; arity++) {
+            PriorityQueue<Integer> queue = new PriorityQueue<>(arity, null);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 3_000; i++) {
+                if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                    int value = random.nextInt(500);
+                    queue.enQueue(value);
+                    expected.add(value);
+                } else {
+                    Integer min = Collections.min(expected);
+                    Assert.assertEquals(min, queue.getFront());
+                    Assert.assertEquals(min, queue.deQueue());
+                    expected.remove(min);
+                }
+                Assert.assertEquals(expected.size(), queue.size());
+            }
+
+            // 建堆之后按比较器(降序)出队
+            PriorityQueue<Integer> heapified = new PriorityQueue<>(expected, arity, Comparator.reverseOrder());
+            expected.sort(Comparator.reverseOrder());
+            for (Integer e : expected) {
+                Assert.assertEquals(e, heapified.deQueue());
+            }
+            Assert.assertTrue(heapified.isEmpty());
+        }
+        Assert.assertTrue(new PriorityQueue<Integer>(new ArrayList<>(), 4, null).isEmpty());
+
+        // Dijkstra：随机有向图，与Bellman-Ford的结果比较
+        int vertices = 200;
+        int[][] edges = new int[2_000][];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = new int[]{random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(100)};
+        }
+        List<List<int[]>> adjacency = new ArrayList<>();
+        for (int v = 0; v < vertices; v++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int[] edge : edges) {
+            adjacency.get(edge[0]).add(edge);
+        }
+
+        long[] distances = new long[vertices];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[0] = 0;
+        IndexedPriorityQueue<Long> frontier = new IndexedPriorityQueue<>(vertices);
+        frontier.insert(0, 0L);
+        while (frontier.isNotEmpty()) {
+            int v = frontier.deleteMin();
+            for (int[] edge : adjacency.get(v)) {
+                long distance = distances[v] + edge[2];
+                if (distance < distances[edge[1]]) {
+                    distances[edge[1]] = distance;
+                    if (frontier.contains(edge[1])) {
+                        frontier.decreaseKey(edge[1], distance);
+                    } else {
+                        frontier.insert(edge[1], distance);
+                    }
+                }
+            }
+        }
+
+        long[] expectedDistances = new long[vertices];
+        Arrays.fill(expectedDistances, Long.MAX_VALUE);
+        expectedDistances[0] = 0;
+        for (int round = 0; round < vertices; round++) {
+            for (int[] edge : edges) {
+                if (expectedDistances[edge[0]] != Long.MAX_VALUE
+                        && expectedDistances[edge[0]] + edge[2] < expectedDistances[edge[1]]) {
+                    expectedDistances[edge[1]] = expectedDistances[edge[0]] + edge[2];
+                }
+            }
+        }
+        Assert.assertArrayEquals(expectedDistances, distances);
+
+        IndexedPriorityQueue<String> tasks = new IndexedPriorityQueue<>(4);
+        tasks.insert(0, "c");
+        tasks.insert(3, "a");
+        tasks.insert(1, "b");
+        tasks.changeKey(3, "d");
+        System.out.println(tasks);
+        Assert.assertEquals(1, tasks.minId());
+        Assert.assertEquals("b", tasks.minKey());
+        Assert.assertEquals("d", tasks.keyOf(3));
+        Assert.assertEquals(1, tasks.deleteMin());
+        Assert.assertEquals(0, tasks.deleteMin());
+        Assert.assertEquals(3, tasks.deleteMin());
+        Assert.assertFalse(tasks.contains(3));
+
+        // 性能：与把SortArray当作优先队列比较
+        int n = 100_000;
+        int[] values = random.ints(n).toArray();
+        long begin = System.nanoTime();
+        PriorityQueue<Integer> heap = new PriorityQueue<>();
+        for (int value : values) {
+            heap.enQueue(value);
+        }
+        while (heap.isNotEmpty()) {
+            heap.deQueue();
+        }
+        long heapTime = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        SortArray<Integer> sorted = new SortArray<>();
+        for (int value : values) {
+            sorted.add(value);
+        }
+        while (sorted.size() > 0) {
+            sorted.delete(0);
+        }
+        long sortedTime = System.nanoTime() - begin;
+        System.out.printf("priority queue %d enQueue + deQueue: 4-ary heap %d ms, SortArray %d ms%n",
+                n, heapTime / 1_000_000, sortedTime / 1_000_000);
+    }
+
+    @Test
+    public void test6() {
+        // 两端随机操作，与LinkedList比较，初始容量很小，环绕之后扩容
+        ArrayDeque<Integer> deque = new ArrayDeque<>(2);
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(6);
+        for (int i = 0; i < 10_000; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    deque.addFirst(i);
+                    expected.addFirst(i);
+                    break;
+                case 2:
+                case 3:
+                    deque.addLast(i);
+                    expected.addLast(i);
+                    break;
+                case 4:
+                    Assert.assertEquals(expected.peekFirst(), deque.peekFirst());
+                    Assert.assertEquals(expected.pollFirst(), deque.pollFirst());
+                    break;
+                default:
+                    Assert.assertEquals(expected.peekLast(), deque.peekLast());
+                    Assert.assertEquals(expected.pollLast(), deque.pollLast());
+            }
+
+            Assert.assertEquals(expected.size(), deque.size());
+        }
+        Assert.assertEquals(expected.toString().replace(" ", ""),
+                deque.toString().replace("ArrayDeque{front:", "").replace("}", ""));
+        while (deque.isNotEmpty()) {
+            Assert.assertEquals(expected.removeLast(), deque.pollLast());
+        }
+        Assert.assertNull(deque.pollFirst());
+        Assert.assertNull(deque.peekLast());
+
+        // 作为Queue使用
+        Queue<String> queue = new ArrayDeque<>(4);
+        for (String s : "a,b,c,d,e".split(",")) {
+            queue.enQueue(s);
+        }
+        Assert.assertEquals("a", queue.deQueue());
+        Assert.assertEquals("b", queue.getFront());
+        Assert.assertEquals("ArrayDeque{front:[b,c,d,e]}", queue.toString());
+
+        // 作为Stack使用，与StackArray的行为一致，包括入栈null
+        Stack<Integer> stack = new ArrayDeque<>();
+        Stack<Integer> reference = new StackArray<>();
+        for (Integer e : Arrays.asList(1, null, 2, 3)) {
+            stack.push(e);
+            reference.push(e);
+        }
+        Assert.assertEquals(reference.peek(), stack.peek());
+        Assert.assertEquals(reference.popPeek(), stack.popPeek());
+        Assert.assertEquals(reference.pop(), stack.pop());
+        Assert.assertEquals(reference.pop(), stack.pop());
+        Assert.assertEquals(reference.popPeek(), stack.popPeek());
+        Assert.assertTrue(stack.isEmpty());
+        Assert.assertNull(stack.popPeek());
+        try {
+            stack.pop();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("deque is empty", e.getMessage());
+        }
+
+        Assert.assertEquals(8, new ArrayDeque<>(5).capacity());
+        System.out.println(deque.getResizeCount() + " resizes, capacity " + deque.capacity());
+    }
 }
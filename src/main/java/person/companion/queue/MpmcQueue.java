@@ -0,0 +1,339 @@
+package person.companion.queue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 功能描述：多生产者多消费者(MPMC)的有界阻塞队列，每个位置带一个序号(Vyukov的设计)，不使用全局锁
+ * 1.第i个位置的序号表示它的状态：序号等于pos时可以写入第pos个元素，等于pos + 1时第pos个元素已经写好可以读取，
+ * 读取之后序号变为pos + capacity，等待下一圈的写入
+ * 2.生产者通过CAS抢占入队位置，写入元素之后再发布序号；消费者通过CAS抢占出队位置，读取之后再发布序号，
+ * 生产者之间、消费者之间只在各自的计数器上竞争，生产者与消费者之间只通过位置上的序号交互
+ * 3.队列满时生产者等待、队列空时消费者等待(背压)，等待时先自旋，再让出CPU，最后每次park一小段时间，
+ * 不需要锁和条件变量，也就不需要唤醒
+ * 4.drainTo一次CAS抢占一段连续已经写好的位置，批量出队
+ * 不允许添加null
+ *
+ * author: companion
+ * Write by: 2026/10/18 22:50
+ */
+public class MpmcQueue<E> implements Queue<E> {
+    // 自旋的次数
+    private static final int SPINS = 64;
+    // 自旋之后让出CPU的次数
+    private static final int YIELDS = 128;
+    // 之后每次park的最长时间
+    private static final long PARK_NANOS = 50_000;
+
+    private final Object[] elements;
+    // 每个位置的序号
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // 下一个入队的位置
+    private final PaddedCounter enqueuePosition = new PaddedCounter();
+    // 下一个出队的位置
+    private final PaddedCounter dequeuePosition = new PaddedCounter();
+
+    /**
+     * @param capacity 容量，不是2的幂时向上取整为2的幂，至少为2
+     */
+    public MpmcQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+
+        // 容量为1时入队之后的序号pos + 1与下一圈可以写入的序号相同，无法区分，因此至少为2
+        int length = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        elements = new Object[length];
+        sequences = new AtomicLongArray(length);
+        mask = length - 1;
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队，不等待
+     *
+     * @param e 元素，不能为null
+     * @return 队列已满时返回false
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                // 这个位置可以写入，抢占它
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    elements[index] = e;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                // 上一圈的元素还没有被读取，队列已满
+                return false;
+            } else {
+                // 被其他生产者抢先了
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * 入队，队列已满时最多等待timeout
+     *
+     * @param e       元素，不能为null
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 超时仍然没有入队时返回false
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; !offer(e); attempt++) {
+            if (!idle(attempt, deadline)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 入队，队列已满时一直等待
+     *
+     * @param e 元素，不能为null
+     * @throws InterruptedException 等待时被中断
+     */
+    public void put(E e) throws InterruptedException {
+        for (int attempt = 0; !offer(e); attempt++) {
+            idle(attempt, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 出队，不等待
+     *
+     * @return 队首元素，队列为空时返回null
+     */
+    public E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                // 这个位置已经写好，抢占它
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    return take(index, position);
+                }
+
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                // 还没有写入，队列为空
+                return null;
+            } else {
+                // 被其他消费者抢先了
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * 出队，队列为空时最多等待timeout
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 队首元素，超时时返回null
+     * @throws InterruptedException 等待时被中断
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        for (int attempt = 0; (e = poll()) == null; attempt++) {
+            if (!idle(attempt, deadline)) {
+                return null;
+            }
+        }
+
+        return e;
+    }
+
+    /**
+     * 出队，队列为空时一直等待
+     *
+     * @return 队首元素
+     * @throws InterruptedException 等待时被中断
+     */
+    public E take() throws InterruptedException {
+        E e;
+        for (int attempt = 0; (e = poll()) == null; attempt++) {
+            idle(attempt, Long.MAX_VALUE);
+        }
+
+        return e;
+    }
+
+    /**
+     * 批量出队，不等待：数出从出队位置开始连续已经写好的位置，一次CAS全部抢占
+     *
+     * @param collection 出队的元素放入这个集合
+     * @param max        最多出队的个数
+     * @return 实际出队的个数
+     */
+    public int drainTo(Collection<? super E> collection, int max) {
+        while (true) {
+            long position = dequeuePosition.get();
+            int count = 0;
+            while (count < max && sequences.get((int) (position + count) & mask) == position + count + 1) {
+                count++;
+            }
+
+            if (count == 0) {
+                return 0;
+            }
+
+            if (dequeuePosition.compareAndSet(position, position + count)) {
+                for (int i = 0; i < count; i++) {
+                    collection.add(take((int) (position + i) & mask, position + i));
+                }
+
+                return count;
+            }
+        }
+    }
+
+    /**
+     * 读取已经抢占的位置，并把它交给下一圈的生产者
+     */
+    private E take(int index, long position) {
+        E e = (E) elements[index];
+        elements[index] = null;
+        sequences.lazySet(index, position + elements.length);
+        return e;
+    }
+
+    /**
+     * 等待一小段时间：先自旋，再让出CPU，最后park
+     *
+     * @param attempt  已经尝试的次数
+     * @param deadline 截止时间(System.nanoTime)
+     * @return 已经超时时返回false
+     * @throws InterruptedException 等待时被中断
+     */
+    private static boolean idle(int attempt, long deadline) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+
+        if (attempt < SPINS) {
+            return true;
+        }
+
+        if (attempt < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(PARK_NANOS, remaining));
+        }
+
+        return true;
+    }
+
+    /**
+     * 入队，不等待
+     *
+     * @param e 需要插入的元素
+     */
+    @Override
+    public void enQueue(E e) {
+        if (!offer(e)) {
+            throw new RuntimeException("queue is full");
+        }
+    }
+
+    /**
+     * 出队，不等待
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E deQueue() {
+        E e = poll();
+        if (e == null) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return e;
+    }
+
+    /**
+     * 获取队首元素，其他线程同时出队时可能已经不是队首了
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E getFront() {
+        while (true) {
+            long position = dequeuePosition.get();
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                // 出队位置没有变化才说明这个位置还没有写入；变化了说明被其他消费者取走，重新读取
+                if (dequeuePosition.get() == position) {
+                    throw new RuntimeException("queue is empty");
+                }
+
+                continue;
+            }
+
+            E e = (E) elements[index];
+            // 读取期间没有被其他消费者取走
+            if (e != null && dequeuePosition.get() == position) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * 元素个数，其他线程同时修改时只是一个近似值
+     *
+     * @return 元素个数
+     */
+    @Override
+    public int size() {
+        long dequeue = dequeuePosition.get();
+        long size = enqueuePosition.get() - dequeue;
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    public String toString() {
+        return "MpmcQueue{size:" + size() + ", capacity:" + elements.length + "}";
+    }
+}
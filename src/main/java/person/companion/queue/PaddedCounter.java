@@ -0,0 +1,52 @@
+package person.companion.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 功能描述：两侧都带填充的计数器，避免不同线程频繁修改的计数器落在同一个缓存行上(伪共享)
+ * 1.HotSpot总是先排父类的字段再排子类的字段，所以把填充和计数器分别放在三层类中：
+ * 第一层的7个long在value前面，把它与之前分配的对象隔开；第三层的7个long在value后面，把它与之后分配的对象隔开
+ * 2.不能继承AtomicLong(它的value排在最前面，前面无法填充)，原子操作使用AtomicLongFieldUpdater实现，
+ * 只提供队列用到的get、lazySet与compareAndSet
+ *
+ * author: companion
+ * Write by: 2026/10/18 22:20
+ */
+class PaddedCounter extends PaddedCounterValue {
+    long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * value前面的填充
+ */
+abstract class PaddedCounterLeftPadding {
+    long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * 计数器的值，以及拥有这个计数器的线程缓存的对方计数器的值
+ */
+abstract class PaddedCounterValue extends PaddedCounterLeftPadding {
+    private static final AtomicLongFieldUpdater<PaddedCounterValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(PaddedCounterValue.class, "value");
+
+    private volatile long value;
+    // 拥有这个计数器的线程缓存的对方计数器的值，只有这个线程读写
+    long cache;
+
+    final long get() {
+        return value;
+    }
+
+    /**
+     * 延迟写入(release语义)：它之前的写入(例如写入队列中的元素)不会被重排到它之后，
+     * 其他线程读到这个新值时一定能看到这些写入；不保证其他线程立即看到新值
+     */
+    final void lazySet(long newValue) {
+        VALUE.lazySet(this, newValue);
+    }
+
+    final boolean compareAndSet(long expect, long update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,178 @@
+package person.companion.queue;
+
+import person.companion.array.Array;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * 功能描述：使用d叉堆实现的优先队列，底层存储为自定义的Array，每次出队的都是最小的元素
+ * 1.堆是隐式的完全d叉树：位置i的子节点为 d*i+1 ... d*i+d，父节点为 (i-1)/d
+ * 2.入队时从末尾向上调整，出队时把最后一个元素放到根再向下调整，都是O(log n)
+ * 3.d越大树越矮，入队越快，向下调整时每层要比较d个子节点，但这d个子节点在数组中是连续的，
+ * d取4时一次向下调整访问的缓存行比二叉堆更少
+ * 4.使用一批元素创建时自底向上建堆，O(n)，比逐个入队的O(n log n)快
+ * 元素相等时的出队顺序不确定
+ *
+ * author: companion
+ * Write by: 2026/10/18 23:10
+ */
+public class PriorityQueue<E> implements Queue<E> {
+    // 默认使用4叉堆
+    private static final int DEFAULT_ARITY = 4;
+
+    private final Array<E> heap;
+    private final int arity;
+    private final Comparator<? super E> comparator;
+
+    public PriorityQueue() {
+        this(DEFAULT_ARITY, null);
+    }
+
+    /**
+     * @param arity      每个节点的子节点个数，至少为2
+     * @param comparator 比较器，为null时按自然顺序
+     */
+    public PriorityQueue(int arity, Comparator<? super E> comparator) {
+        this(10, arity, comparator);
+    }
+
+    private PriorityQueue(int capacity, int arity, Comparator<? super E> comparator) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+
+        this.heap = new Array<>(Math.max(capacity, 1));
+        this.arity = arity;
+        this.comparator = comparator == null ? (a, b) -> ((Comparable<? super E>) a).compareTo(b) : comparator;
+    }
+
+    /**
+     * 使用一批元素创建优先队列，自底向上建堆，O(n)
+     *
+     * @param elements   元素
+     * @param arity      每个节点的子节点个数，至少为2
+     * @param comparator 比较器，为null时按自然顺序
+     */
+    public PriorityQueue(Collection<? extends E> elements, int arity, Comparator<? super E> comparator) {
+        this(elements.size(), arity, comparator);
+        heap.addAll(0, elements);
+        // 从最后一个非叶子节点开始向下调整
+        for (int i = (heap.size() - 2) / arity; i >= 0 && heap.size() > 1; i--) {
+            siftDown(i, heap.get(i));
+        }
+    }
+
+    /**
+     * 插入元素，O(log n)
+     *
+     * @param e 需要插入的元素
+     */
+    @Override
+    public void enQueue(E e) {
+        heap.addLast(e);
+        siftUp(heap.size() - 1, e);
+    }
+
+    /**
+     * 删除并返回最小的元素，O(d log n)
+     *
+     * @return 最小的元素
+     */
+    @Override
+    public E deQueue() {
+        E front = getFront();
+        E last = heap.deleteLast();
+        if (heap.size() > 0) {
+            siftDown(0, last);
+        }
+
+        return front;
+    }
+
+    /**
+     * 获取最小的元素
+     *
+     * @return 最小的元素
+     */
+    @Override
+    public E getFront() {
+        if (isEmpty()) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return heap.get(0);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.size() == 0;
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    /**
+     * 把e放到位置i，并向上调整：比父节点小时父节点下移，直到找到e的位置
+     */
+    private void siftUp(int i, E e) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            E p = heap.get(parent);
+            if (comparator.compare(e, p) >= 0) {
+                break;
+            }
+
+            heap.replace(i, p);
+            i = parent;
+        }
+
+        heap.replace(i, e);
+    }
+
+    /**
+     * 把e放到位置i，并向下调整：最小的子节点比e小时子节点上移，直到找到e的位置
+     */
+    private void siftDown(int i, E e) {
+        int size = heap.size();
+        while (true) {
+            int first = arity * i + 1;
+            if (first >= size) {
+                break;
+            }
+
+            // 在连续的d个子节点中找最小的
+            int min = first;
+            E minValue = heap.get(first);
+            int end = Math.min(first + arity, size);
+            for (int child = first + 1; child < end; child++) {
+                E value = heap.get(child);
+                if (comparator.compare(value, minValue) < 0) {
+                    min = child;
+                    minValue = value;
+                }
+            }
+
+            if (comparator.compare(minValue, e) >= 0) {
+                break;
+            }
+
+            heap.replace(i, minValue);
+            i = min;
+        }
+
+        heap.replace(i, e);
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityQueue{heap:" + heap + "}";
+    }
+}
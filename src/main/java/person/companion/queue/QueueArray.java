@@ -1,6 +1,8 @@
 package person.companion.queue;
 
 import person.companion.array.Array;
+import person.companion.array.ResizePolicy;
+import person.companion.array.Sequence;
 
 /**
  * 功能描述：使用自定义的Array自定义一个队列
@@ -9,7 +11,7 @@ import person.companion.array.Array;
  * Write by: 2021/7/15 13:09
  */
 public class QueueArray<E> implements Queue<E> {
-    private Array<E> data;
+    private Sequence<E> data;
 
     public QueueArray() {
         this(10);
@@ -19,6 +21,19 @@ public class QueueArray<E> implements Queue<E> {
         data = new Array<>(capacity);
     }
 
+    public QueueArray(int capacity, ResizePolicy policy) {
+        data = new Array<>(capacity, policy);
+    }
+
+    /**
+     * 使用指定的数组作为底层存储，例如使用SegmentedArray时扩容不会整体复制数组
+     *
+     * @param data 底层数组，必须为空
+     */
+    public QueueArray(Sequence<E> data) {
+        this.data = data;
+    }
+
     /**
      * 插入元素
      *
@@ -79,6 +94,16 @@ public class QueueArray<E> implements Queue<E> {
         return !isEmpty();
     }
 
+    /**
+     * 获取底层数组扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        // 其他实现(例如SegmentedArray)不会整体复制数组
+        return data instanceof Array ? ((Array<E>) data).getResizeCount() : 0;
+    }
+
 
     @Override
     public String toString() {
@@ -0,0 +1,216 @@
+package person.companion.queue;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 功能描述：单生产者单消费者(SPSC)的有界无锁队列，只能有一个线程入队、一个线程出队
+ * 1.tail只由生产者修改，head只由消费者修改，两边都不需要CAS，每个操作的步数是固定的(wait-free)
+ * 2.生产者先写入元素，再用lazySet发布新的tail(release语义，不需要完整的内存屏障)，
+ * 消费者读到新的tail之后一定能看到对应的元素；消费者置空元素之后同样用lazySet发布head
+ * 3.head与tail放在两个带填充的对象中，避免两个线程各自修改的计数器落在同一个缓存行上(伪共享)，
+ * 每一方还缓存了一份对方计数器的旧值，只有旧值显示队列满/空时才去读对方的计数器
+ * 4.批量入队/出队只发布一次计数器，生产者与消费者在不同核上运行时可以减少跨核的缓存行传递，
+ * 只有一个核时没有这部分开销，批量与逐个的吞吐量差不多
+ * 不允许添加null，poll返回null表示队列为空
+ *
+ * author: companion
+ * Write by: 2026/10/18 22:20
+ */
+public class SpscQueue<E> implements Queue<E> {
+    private final Object[] elements;
+    private final int mask;
+    // 消费者的计数器，cache为消费者看到的tail
+    private final PaddedCounter head = new PaddedCounter();
+    // 生产者的计数器，cache为生产者看到的head
+    private final PaddedCounter tail = new PaddedCounter();
+
+    /**
+     * @param capacity 容量，不是2的幂时向上取整为2的幂
+     */
+    public SpscQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+
+        elements = new Object[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        mask = elements.length - 1;
+    }
+
+    /**
+     * 入队，只能由生产者线程调用
+     *
+     * @param e 元素，不能为null
+     * @return 队列已满时返回false
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long t = tail.get();
+        if (t - tail.cache == elements.length) {
+            tail.cache = head.get();
+            if (t - tail.cache == elements.length) {
+                return false;
+            }
+        }
+
+        elements[(int) t & mask] = e;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * 批量入队，所有元素写入之后只发布一次tail，只能由生产者线程调用
+     *
+     * @param batch 元素，不能包含null
+     * @return 实际入队的个数，队列剩余空间不够时只入队前面的一部分
+     */
+    public int offer(List<? extends E> batch) {
+        long t = tail.get();
+        if (elements.length - (t - tail.cache) < batch.size()) {
+            tail.cache = head.get();
+        }
+
+        int n = (int) Math.min(batch.size(), elements.length - (t - tail.cache));
+        for (int i = 0; i < n; i++) {
+            E e = batch.get(i);
+            if (e == null) {
+                // 已经写入的元素照常发布
+                tail.lazySet(t + i);
+                throw new NullPointerException();
+            }
+
+            elements[(int) (t + i) & mask] = e;
+        }
+
+        tail.lazySet(t + n);
+        return n;
+    }
+
+    /**
+     * 出队，只能由消费者线程调用
+     *
+     * @return 队首元素，队列为空时返回null
+     */
+    public E poll() {
+        long h = head.get();
+        if (h == head.cache) {
+            head.cache = tail.get();
+            if (h == head.cache) {
+                return null;
+            }
+        }
+
+        int index = (int) h & mask;
+        E e = (E) elements[index];
+        elements[index] = null;
+        head.lazySet(h + 1);
+        return e;
+    }
+
+    /**
+     * 批量出队，所有元素交给consumer之后只发布一次head，只能由消费者线程调用
+     *
+     * @param consumer 处理元素，抛出异常时停止出队，异常继续抛出
+     * @param max      最多出队的个数
+     * @return 实际出队的个数
+     */
+    public int poll(Consumer<? super E> consumer, int max) {
+        long h = head.get();
+        if (head.cache - h < max) {
+            head.cache = tail.get();
+        }
+
+        int n = (int) Math.min(max, head.cache - h);
+        int taken = 0;
+        try {
+            while (taken < n) {
+                int index = (int) (h + taken) & mask;
+                E e = (E) elements[index];
+                elements[index] = null;
+                taken++;
+                consumer.accept(e);
+            }
+        } finally {
+            // consumer抛出异常时，已经取出的元素(包括抛出异常的这个)出队，剩下的元素留在队列中
+            head.lazySet(h + taken);
+        }
+
+        return n;
+    }
+
+    /**
+     * 入队，只能由生产者线程调用
+     *
+     * @param e 需要插入的元素
+     */
+    @Override
+    public void enQueue(E e) {
+        if (!offer(e)) {
+            throw new RuntimeException("queue is full");
+        }
+    }
+
+    /**
+     * 出队，只能由消费者线程调用
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E deQueue() {
+        E e = poll();
+        if (e == null) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return e;
+    }
+
+    /**
+     * 获取队首元素，只能由消费者线程调用
+     *
+     * @return 队首元素
+     */
+    @Override
+    public E getFront() {
+        long h = head.get();
+        if (h == tail.get()) {
+            throw new RuntimeException("queue is empty");
+        }
+
+        return (E) elements[(int) h & mask];
+    }
+
+    /**
+     * 元素个数，其他线程同时修改时只是一个近似值
+     *
+     * @return 元素个数
+     */
+    @Override
+    public int size() {
+        // 先读head，保证结果不会是负数
+        long h = head.get();
+        return (int) (tail.get() - h);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    public String toString() {
+        return "SpscQueue{size:" + size() + ", capacity:" + elements.length + "}";
+    }
+}
@@ -0,0 +1,332 @@
+package person.companion.sort;
+
+import person.companion.array.MergeIterator;
+import person.companion.array.RecordCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：外部排序，用来排序比堆内存大得多的数据
+ * 1.生成有序段：每次读入最多runSize条记录，在内存中排好序之后按RecordCodec的定长格式写入临时文件，
+ * 内存中同时只有一个有序段，runSize就是内存预算
+ * 2.多路归并：有序段多于fanIn个时，每fanIn个归并成一个更长的有序段，直到不超过fanIn个，
+ * 最后一趟归并不再写文件，直接通过迭代器输出或写入输出流
+ * 3.读取有序段时每一路都有自己的缓冲区，按块读取文件，不会每条记录都读一次磁盘
+ * 4.排序是稳定的：相等的记录保持输入时的顺序
+ * 5.数据一个有序段就放得下时不会写任何文件
+ *
+ * author: companion
+ * Write by: 2026/10/18 20:40
+ */
+public class ExternalSorter<E> {
+    // 默认每次最多归并64个有序段
+    private static final int DEFAULT_FAN_IN = 64;
+    // 每一路读写缓冲区的大小
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final RecordCodec<E> codec;
+    private final Comparator<? super E> comparator;
+    // 每个有序段最多的记录数
+    private final int runSize;
+    // 每次最多归并的有序段个数
+    private final int fanIn;
+    // 临时文件所在的目录
+    private final Path runDirectory;
+
+    // 最近一次排序生成的有序段个数以及写入文件的归并趟数，用于观察参数是否合适
+    private int runCount;
+    private int mergePassCount;
+
+    /**
+     * 按自然顺序排序，有序段写入系统临时目录
+     *
+     * @param codec   记录的编解码器
+     * @param runSize 每个有序段最多的记录数
+     */
+    public ExternalSorter(RecordCodec<E> codec, int runSize) {
+        this(codec, (a, b) -> ((Comparable<? super E>) a).compareTo(b), runSize, DEFAULT_FAN_IN,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param codec        记录的编解码器
+     * @param comparator   比较器
+     * @param runSize      每个有序段最多的记录数
+     * @param fanIn        每次最多归并的有序段个数
+     * @param runDirectory 临时文件所在的目录
+     */
+    public ExternalSorter(RecordCodec<E> codec, Comparator<? super E> comparator, int runSize, int fanIn,
+                          Path runDirectory) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize must be positive");
+        }
+
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn must be at least 2");
+        }
+
+        this.codec = codec;
+        this.comparator = comparator;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.runDirectory = runDirectory;
+    }
+
+    /**
+     * 排序结果的迭代器，读完或者调用close()之后删除剩下的临时文件
+     */
+    public static class SortedIterator<E> implements Iterator<E>, AutoCloseable {
+        private final Iterator<E> merged;
+        private final List<RunReader<E>> readers;
+
+        private SortedIterator(Iterator<E> merged, List<RunReader<E>> readers) {
+            this.merged = merged;
+            this.readers = readers;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (merged.hasNext()) {
+                return true;
+            }
+
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return false;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return merged.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeAll(readers);
+        }
+    }
+
+    /**
+     * 排序，结果通过迭代器返回
+     *
+     * @param input 输入数据
+     * @return 有序的迭代器，没有读完时需要调用close()删除临时文件
+     * @throws IOException 读写临时文件失败
+     */
+    public SortedIterator<E> sort(Iterator<? extends E> input) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try {
+            E[] buffer = (E[]) new Object[runSize];
+            int count = 0;
+            runCount = 0;
+            mergePassCount = 0;
+            while (input.hasNext()) {
+                buffer[count++] = input.next();
+                if (count == runSize) {
+                    runs.add(spill(buffer, count));
+                    count = 0;
+                }
+            }
+
+            // 一个有序段就放得下，直接在内存中排序
+            if (runs.isEmpty()) {
+                Arrays.sort(buffer, 0, count, comparator);
+                runCount = count > 0 ? 1 : 0;
+                return new SortedIterator<>(Arrays.asList(buffer).subList(0, count).iterator(),
+                        Collections.emptyList());
+            }
+
+            if (count > 0) {
+                runs.add(spill(buffer, count));
+            }
+
+            runCount = runs.size();
+            // 有序段太多时先归并成更少、更长的有序段
+            while (runs.size() > fanIn) {
+                runs = mergePass(runs);
+                mergePassCount++;
+            }
+
+            List<RunReader<E>> readers = open(runs);
+            MergeIterator<E> merged;
+            try {
+                // 创建时会读取每个有序段的第一条记录，失败时先关闭已经打开的读取器
+                merged = new MergeIterator<>(readers, comparator, false);
+            } catch (RuntimeException e) {
+                try {
+                    closeAll(readers);
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+
+                throw e;
+            }
+
+            return new SortedIterator<>(merged, readers);
+        } catch (IOException | RuntimeException e) {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * 排序，结果按RecordCodec的定长格式写入输出流，输出流不会被关闭
+     *
+     * @param input 输入数据
+     * @param out   输出流
+     * @throws IOException 读写临时文件或者写入输出流失败
+     */
+    public void sort(Iterator<? extends E> input, OutputStream out) throws IOException {
+        try (SortedIterator<E> sorted = sort(input)) {
+            RunWriter<E> writer = new RunWriter<>(Channels.newChannel(out), codec, BUFFER_BYTES);
+            while (sorted.hasNext()) {
+                writer.write(sorted.next());
+            }
+
+            writer.flush();
+        }
+    }
+
+    /**
+     * 最近一次排序生成的有序段个数
+     *
+     * @return 有序段个数
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * 最近一次排序中写入文件的归并趟数，不包括最后一趟
+     *
+     * @return 归并趟数
+     */
+    public int getMergePassCount() {
+        return mergePassCount;
+    }
+
+    /**
+     * 将buffer中的前count条记录排序之后写入一个新的有序段文件
+     */
+    private Path spill(E[] buffer, int count) throws IOException {
+        Arrays.sort(buffer, 0, count, comparator);
+        Path run = write(Arrays.asList(buffer).subList(0, count).iterator());
+        // 释放引用，让已经写入文件的记录可以被回收
+        Arrays.fill(buffer, 0, count, null);
+        return run;
+    }
+
+    /**
+     * 一趟归并：每fanIn个有序段归并成一个，归并完成之后删除原来的文件
+     */
+    private List<Path> mergePass(List<Path> runs) throws IOException {
+        List<Path> merged = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+
+                List<RunReader<E>> readers = open(group);
+                try {
+                    merged.add(write(new MergeIterator<E>(readers, comparator, false)));
+                } finally {
+                    closeAll(readers);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 这一趟已经生成的有序段不在runs中，需要在这里删除
+            for (Path run : merged) {
+                Files.deleteIfExists(run);
+            }
+
+            throw e;
+        }
+
+        return merged;
+    }
+
+    /**
+     * 将有序的记录写入一个新的临时文件
+     */
+    private Path write(Iterator<? extends E> sorted) throws IOException {
+        Path run = Files.createTempFile(runDirectory, "run-", ".bin");
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            RunWriter<E> writer = new RunWriter<>(channel, codec, BUFFER_BYTES);
+            while (sorted.hasNext()) {
+                writer.write(sorted.next());
+            }
+
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+
+        return run;
+    }
+
+    private List<RunReader<E>> open(List<Path> runs) throws IOException {
+        List<RunReader<E>> readers = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                readers.add(new RunReader<>(run, codec, BUFFER_BYTES));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(readers);
+            throw e;
+        }
+
+        return readers;
+    }
+
+    /**
+     * 关闭所有读取器并删除对应的文件，出错时仍然会尝试关闭剩下的读取器
+     */
+    private static <E> void closeAll(List<RunReader<E>> readers) throws IOException {
+        IOException failure = null;
+        for (RunReader<E> reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
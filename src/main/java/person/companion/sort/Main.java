@@ -0,0 +1,151 @@
+package person.companion.sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+import person.companion.array.RecordCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 功能描述：测试排序
+ *
+ * author: companion
+ * Write by: 2026/10/18 20:40
+ */
+public class Main {
+    /**
+     * 测试外部排序：有序段个数超过fanIn，需要先归并一趟再输出
+     */
+    @Test
+    public void test() throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        Random random = new Random(1);
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            values.add(random.nextLong() % 1_000_000);
+        }
+
+        ExternalSorter<Long> sorter = new ExternalSorter<>(RecordCodec.ofLong(), Comparator.naturalOrder(),
+                10_000, 4, directory);
+        List<Long> sorted = new ArrayList<>();
+        long begin = System.nanoTime();
+        sorter.sort(values.iterator()).forEachRemaining(sorted::add);
+        System.out.printf("external sort %d records: %d ms, runs %d, merge passes %d%n", values.size(),
+                (System.nanoTime() - begin) / 1_000_000, sorter.getRunCount(), sorter.getMergePassCount());
+
+        Collections.sort(values);
+        Assert.assertEquals(values, sorted);
+        Assert.assertEquals(20, sorter.getRunCount());
+        Assert.assertEquals(2, sorter.getMergePassCount());
+        // 读完之后临时文件都已经删除
+        Assert.assertEquals(0, countFiles(directory));
+
+        // 没有读完时通过close()删除临时文件
+        try (ExternalSorter.SortedIterator<Long> iterator = sorter.sort(values.iterator())) {
+            Assert.assertEquals(values.get(0), iterator.next());
+            Assert.assertTrue(countFiles(directory) > 0);
+        }
+        Assert.assertEquals(0, countFiles(directory));
+        Files.delete(directory);
+    }
+
+    /**
+     * 测试按比较器排序int[]记录，输出到输出流，相等的记录保持输入顺序
+     */
+    @Test
+    public void test1() throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        Random random = new Random(2);
+        List<int[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // (行号, 列号, 输入顺序)
+            rows.add(new int[]{random.nextInt(15), random.nextInt(15), i});
+        }
+
+        Comparator<int[]> byPosition = Comparator.<int[]>comparingInt(row -> row[0]).thenComparingInt(row -> row[1]);
+        ExternalSorter<int[]> sorter = new ExternalSorter<>(RecordCodec.ofInts(3), byPosition, 300, 3, directory);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sorter.sort(rows.iterator(), out);
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Assert.assertEquals(rows.size() * 12, buffer.capacity());
+        // List.sort也是稳定的
+        rows.sort(byPosition);
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertArrayEquals(rows.get(i), RecordCodec.ofInts(3).read(buffer, i * 12));
+        }
+
+        Assert.assertEquals(0, countFiles(directory));
+        Files.delete(directory);
+    }
+
+    /**
+     * 数据一个有序段就放得下以及没有数据时不写文件
+     */
+    @Test
+    public void test2() throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(RecordCodec.ofInt(), Comparator.naturalOrder(),
+                100, 2, directory);
+        List<Integer> sorted = new ArrayList<>();
+        sorter.sort(Arrays.asList(3, 1, 2).iterator()).forEachRemaining(sorted::add);
+        Assert.assertEquals(Arrays.asList(1, 2, 3), sorted);
+        Assert.assertEquals(1, sorter.getRunCount());
+
+        Assert.assertFalse(sorter.sort(Collections.<Integer>emptyIterator()).hasNext());
+        Assert.assertEquals(0, sorter.getRunCount());
+        Assert.assertEquals(0, countFiles(directory));
+
+        // 最后一趟归并读取第一条记录时失败：关闭所有有序段文件并删除
+        RecordCodec<Integer> ints = RecordCodec.ofInt();
+        RecordCodec<Integer> failing = new RecordCodec<Integer>() {
+            @Override
+            public int recordSize() {
+                return ints.recordSize();
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Integer e) {
+                ints.write(buffer, offset, e);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer, int offset) {
+                throw new IllegalStateException("corrupted run");
+            }
+        };
+        Path fd = Paths.get("/proc/self/fd");
+        long openFiles = Files.isDirectory(fd) ? countFiles(fd) : 0;
+        ExternalSorter<Integer> broken = new ExternalSorter<>(failing, Comparator.naturalOrder(), 2, 8, directory);
+        try {
+            broken.sort(Arrays.asList(5, 4, 3, 2, 1).iterator());
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("corrupted run", e.getMessage());
+        }
+        Assert.assertEquals(3, broken.getRunCount());
+        Assert.assertEquals(0, countFiles(directory));
+        if (Files.isDirectory(fd)) {
+            Assert.assertEquals(openFiles, countFiles(fd));
+        }
+        Files.delete(directory);
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
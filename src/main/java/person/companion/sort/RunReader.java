@@ -0,0 +1,104 @@
+package person.companion.sort;
+
+import person.companion.array.RecordCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 功能描述：顺序读取一个有序段文件的迭代器
+ * 每次从FileChannel读入一整块到缓冲区，再从缓冲区中逐条解码，缓冲区大小是记录长度的整数倍，
+ * 因此每次读满缓冲区时不会把一条记录拆在两块中
+ * 关闭时删除文件，有序段文件只是排序的中间结果
+ *
+ * author: companion
+ * Write by: 2026/10/18 20:40
+ */
+class RunReader<E> implements Iterator<E>, AutoCloseable {
+    private final Path file;
+    private final FileChannel channel;
+    private final RecordCodec<E> codec;
+    private final int recordSize;
+    private final ByteBuffer buffer;
+    // 缓冲区中下一条记录的位置
+    private int position;
+    private boolean closed;
+
+    RunReader(Path file, RecordCodec<E> codec, int bufferBytes) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.buffer = ByteBuffer.allocate(Math.max(1, bufferBytes / recordSize) * recordSize);
+        // 初始时缓冲区为空
+        buffer.limit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position + recordSize <= buffer.limit()) {
+            return true;
+        }
+
+        if (closed) {
+            return false;
+        }
+
+        try {
+            fill();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return position + recordSize <= buffer.limit();
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        E e = codec.read(buffer, position);
+        position += recordSize;
+        return e;
+    }
+
+    /**
+     * 读满缓冲区或者读到文件末尾
+     */
+    private void fill() throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // 继续读取，直到读满缓冲区
+        }
+
+        buffer.flip();
+        position = 0;
+    }
+
+    /**
+     * 关闭文件并删除
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        buffer.limit(0);
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package person.companion.sort;
+
+import person.companion.array.RecordCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 功能描述：把记录按RecordCodec定义的定长格式写入通道
+ * 记录先编码到缓冲区中，缓冲区满了之后整块写入，文件中没有任何额外的分隔符或长度字段
+ *
+ * author: companion
+ * Write by: 2026/10/18 20:40
+ */
+class RunWriter<E> {
+    private final WritableByteChannel channel;
+    private final RecordCodec<E> codec;
+    private final int recordSize;
+    private final ByteBuffer buffer;
+    // 缓冲区中已经写入的字节数
+    private int position;
+
+    /**
+     * @param channel     输出通道
+     * @param codec       记录的编解码器
+     * @param bufferBytes 缓冲区大小，会向下取整为记录长度的整数倍
+     */
+    RunWriter(WritableByteChannel channel, RecordCodec<E> codec, int bufferBytes) {
+        this.channel = channel;
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.buffer = ByteBuffer.allocate(Math.max(1, bufferBytes / recordSize) * recordSize);
+    }
+
+    void write(E e) throws IOException {
+        if (position + recordSize > buffer.capacity()) {
+            flush();
+        }
+
+        codec.write(buffer, position, e);
+        position += recordSize;
+    }
+
+    /**
+     * 将缓冲区中的记录全部写入通道
+     */
+    void flush() throws IOException {
+        buffer.limit(position).position(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+        position = 0;
+    }
+}
@@ -1,6 +1,8 @@
 package person.companion.stack;
 
 import person.companion.array.Array;
+import person.companion.array.ResizePolicy;
+import person.companion.array.Sequence;
 
 /**
  * 功能描述：通过自定义的Array类实现一个栈结构
@@ -9,7 +11,7 @@ import person.companion.array.Array;
  * Write by: 2021/7/15 10:54
  */
 public class StackArray<E> implements Stack<E> {
-    private Array<E> data;
+    private Sequence<E> data;
 
     public StackArray() {
         this(10);
@@ -19,6 +21,19 @@ public class StackArray<E> implements Stack<E> {
         data = new Array(capacity);
     }
 
+    public StackArray(int capacity, ResizePolicy policy) {
+        data = new Array<>(capacity, policy);
+    }
+
+    /**
+     * 使用指定的数组作为底层存储，例如使用SegmentedArray时扩容不会整体复制数组
+     *
+     * @param data 底层数组，必须为空
+     */
+    public StackArray(Sequence<E> data) {
+        this.data = data;
+    }
+
     /**
      * 入栈
      *
@@ -88,6 +103,16 @@ public class StackArray<E> implements Stack<E> {
         return isEmpty() ? null : peek();
     }
 
+    /**
+     * 获取底层数组扩容缩容的次数
+     *
+     * @return 扩容缩容的次数
+     */
+    public int getResizeCount() {
+        // 其他实现(例如SegmentedArray)不会整体复制数组
+        return data instanceof Array ? ((Array<E>) data).getResizeCount() : 0;
+    }
+
     @Override
     public String toString() {
         return "StackArray{" +
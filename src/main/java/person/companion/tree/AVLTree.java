@@ -1,11 +1,13 @@
 package person.companion.tree;
 
-import person.companion.queue.QueueArray;
+import person.companion.queue.ArrayQueue;
 import person.companion.stack.StackArray;
 import lombok.Data;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * 功能描述：自定义平衡二叉搜索树
@@ -16,7 +18,7 @@ import java.util.List;
  * author: companion
  * Write by: 2021/7/26 20:37
  */
-public class AVLTree<E extends Comparable<E>> {
+public class AVLTree<E extends Comparable<E>> implements Iterable<E> {
     public static void main(String[] args) {
         AVLTree<Integer> tree = new AVLTree<>();
         for (int i = 0; i < 30; i++) {
@@ -418,6 +420,53 @@ public class AVLTree<E extends Comparable<E>> {
         return list;
     }
 
+    /**
+     * 获取按中序遍历顺序(从小到大)的迭代器
+     * 与inorderTraversal不同，不会一次性把所有值放进集合，栈中最多只有树高个节点
+     *
+     * @return 迭代器
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new InorderIterator();
+    }
+
+    /**
+     * 使用栈实现的中序遍历迭代器，每次next只处理一个节点
+     */
+    private class InorderIterator implements Iterator<E> {
+        private final StackArray<Node<E>> stack = new StackArray<>();
+
+        InorderIterator() {
+            pushLeft(root);
+        }
+
+        // 将节点以及它的左节点、左节点的左节点...依次入栈
+        private void pushLeft(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return stack.isNotEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<E> node = stack.pop();
+            // 遍历右节点
+            pushLeft(node.right);
+            return node.value;
+        }
+    }
+
     /**
      * 后序遍历
      *
@@ -636,7 +685,8 @@ public class AVLTree<E extends Comparable<E>> {
      */
     private List<E> queueTraversal(Node<E> node) {
         List<E> list = new ArrayList<>();
-        QueueArray<Node<E>> queue = new QueueArray<>();
+        // 循环数组实现的队列，出队时不需要移动其他元素
+        ArrayQueue<Node<E>> queue = new ArrayQueue<>();
         queue.enQueue(node);
         while (queue.isNotEmpty()) {
             node = queue.deQueue();
@@ -7,7 +7,9 @@ import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * 功能描述：自定义红黑树实现
@@ -17,7 +19,7 @@ import java.util.List;
  */
 @Data
 @NoArgsConstructor
-public class RBTree<E extends Comparable<E>> {
+public class RBTree<E extends Comparable<E>> implements Iterable<E> {
     private static final boolean BLACK = false;
     private static final boolean RED = true;
 
@@ -288,6 +290,53 @@ public class RBTree<E extends Comparable<E>> {
         return list;
     }
 
+    /**
+     * 获取按中序遍历顺序(从小到大)的迭代器
+     * 与inorderTraversal不同，不会一次性把所有值放进集合，栈中最多只有树高个节点
+     *
+     * @return 迭代器
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new InorderIterator();
+    }
+
+    /**
+     * 使用栈实现的中序遍历迭代器，每次next只处理一个节点
+     */
+    private class InorderIterator implements Iterator<E> {
+        private final StackArray<Node<E>> stack = new StackArray<>();
+
+        InorderIterator() {
+            pushLeft(root);
+        }
+
+        // 将节点以及它的左节点、左节点的左节点...依次入栈
+        private void pushLeft(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return stack.isNotEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<E> node = stack.pop();
+            // 遍历右节点
+            pushLeft(node.right);
+            return node.value;
+        }
+    }
+
     /**
      * 使用栈实现中序遍历
      *